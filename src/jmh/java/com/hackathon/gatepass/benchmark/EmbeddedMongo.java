@@ -0,0 +1,44 @@
+package com.hackathon.gatepass.benchmark;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// In-process MongoDB wire-protocol server; numbers are only comparable between runs of this harness,
+// not with a real mongod.
+public final class EmbeddedMongo implements AutoCloseable {
+
+    private static final int INSERT_CHUNK = 5_000;
+
+    private final InMemoryMongo server;
+    private final MongoTemplate mongoTemplate;
+
+    private EmbeddedMongo(InMemoryMongo server, MongoTemplate mongoTemplate) {
+        this.server = server;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public static EmbeddedMongo start() {
+        InMemoryMongo server = InMemoryMongo.start();
+        return new EmbeddedMongo(server, server.template("gatepass_bench"));
+    }
+
+    public MongoTemplate getMongoTemplate() {
+        return mongoTemplate;
+    }
+
+    public void seed(List<Pass> passes) {
+        for (int from = 0; from < passes.size(); from += INSERT_CHUNK) {
+            List<Pass> chunk = new ArrayList<>(passes.subList(from, Math.min(from + INSERT_CHUNK, passes.size())));
+            mongoTemplate.insert(chunk, Pass.class);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+}
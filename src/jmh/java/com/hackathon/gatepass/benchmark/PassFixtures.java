@@ -0,0 +1,76 @@
+package com.hackathon.gatepass.benchmark;
+
+import com.hackathon.gatepass.model.Pass;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic passes shaped like a real event: a long tail of colleges,
+// a few dozen volunteers and most teams already through the gate.
+public final class PassFixtures {
+
+    public static final int COLLEGES = 150;
+    public static final int VOLUNTEERS = 30;
+    public static final String EVENT_ID = "bench";
+
+    private PassFixtures() {
+    }
+
+    public static String passCode(int index) {
+        return String.format("BENCH-%07d", index);
+    }
+
+    public static List<Pass> passes(int count, double entryRatio, double goodiesRatio) {
+        Random random = new Random(42);
+        Instant base = Instant.parse("2024-01-15T08:00:00Z");
+        List<Pass> passes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean entered = random.nextDouble() < entryRatio;
+            boolean goodies = entered && random.nextDouble() < goodiesRatio;
+            Instant createdAt = base.minus(count - i, ChronoUnit.SECONDS);
+            passes.add(Pass.builder()
+                    .eventId(EVENT_ID)
+                    .teamId("TEAM-" + (i / 4))
+                    .teamName("Team " + (i / 4))
+                    .name("Participant " + i)
+                    .email("participant" + i + "@example.com")
+                    .mobile(String.format("9%09d", i))
+                    .gender(i % 2 == 0 ? "Female" : "Male")
+                    .location("Bengaluru")
+                    .userType("College Students")
+                    .domain("Engineering")
+                    .course("B.Tech")
+                    .specialization("Computer Science")
+                    .yearOfGraduation(2025 + i % 3)
+                    .college(college(Math.min(COLLEGES - 1, (int) Math.abs(random.nextGaussian() * COLLEGES / 3))))
+                    .unstopReportUrl("https://unstop.com/report/" + i)
+                    .pptUrl("https://example.com/ppt/" + i + ".pdf")
+                    .passCode(passCode(i))
+                    .entryVerified(entered)
+                    .verifiedBy(entered ? volunteer(random.nextInt(VOLUNTEERS)) : null)
+                    .entryVerifiedAt(entered ? base.plus(random.nextInt(7200), ChronoUnit.SECONDS) : null)
+                    .goodiesGiven(goodies)
+                    .goodiesGivenBy(goodies ? volunteer(random.nextInt(VOLUNTEERS)) : null)
+                    .goodiesGivenAt(goodies ? base.plus(7200 + random.nextInt(3600), ChronoUnit.SECONDS) : null)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        return passes;
+    }
+
+    public static Pass verifiedPass() {
+        return passes(1, 1.0, 1.0).get(0);
+    }
+
+    private static String college(int index) {
+        return "College of Engineering " + index;
+    }
+
+    private static String volunteer(int index) {
+        return "volunteer" + index;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.repository.PassRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.Duration;
+
+// Wires the service graph by hand so benchmarks measure the service code, not context startup.
+final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    static PassService passService(MongoTemplate mongoTemplate) {
+        PassRepository passRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(PassRepository.class);
+        // Nothing writes concurrently, so rebuilds have no in-flight counter updates to wait for
+        PassStatsService statsService = new PassStatsService(mongoTemplate, Duration.ZERO);
+        return new PassService(
+                passRepository,
+                mongoTemplate,
+                new PassTransitionEngine(mongoTemplate),
+                new PassCache(new SimpleMeterRegistry(), 50_000, Duration.ofMinutes(10)),
+                statsService,
+                new PassThroughputService(mongoTemplate, Duration.ofHours(1), Duration.ofDays(7), Duration.ZERO),
+                new PassPager(mongoTemplate),
+                new PassSyncService(mongoTemplate, Duration.ofSeconds(2)),
+                new DashboardFeed(statsService, 1000, Duration.ofMinutes(30), Duration.ofSeconds(5),
+                        1, Duration.ofSeconds(5)),
+                new PassMetrics(new SimpleMeterRegistry()),
+                new ScanAuditLog(mongoTemplate, new SimpleMeterRegistry(), false, 1, 1),
+                new PassCodeSigner(new SimpleMeterRegistry(), "", "", true),
+                new PassCodeFilter(mongoTemplate, new SimpleMeterRegistry(), false, 1, 0.01, false));
+    }
+
+    static PassService detachedPassService() {
+        return new PassService(null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hackathon.gatepass.benchmark.PassFixtures;
+import com.hackathon.gatepass.dto.PageResponse;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.StatsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectWriter scannerWriter;
+    private PassResponse pass;
+    private PageResponse<PassResponse> page;
+    private StatsResponse stats;
+
+    @Setup
+    public void setUp() {
+        // Same module set and date handling Spring MVC uses for response bodies
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().filters(PassFieldSet.defaultFilters()).build();
+        writer = objectMapper.writer();
+        scannerWriter = objectMapper.writer(PassFieldSet.parse("scanner").filters());
+
+        PassService passService = BenchmarkServices.detachedPassService();
+        List<PassResponse> items = PassFixtures.passes(PassPager.MAX_LIMIT, 0.6, 0.4).stream()
+                .map(passService::mapToResponse)
+                .collect(Collectors.toList());
+        pass = items.get(0);
+        page = PageResponse.<PassResponse>builder()
+                .items(items)
+                .limit(items.size())
+                .sort("createdAt")
+                .direction("desc")
+                .nextCursor("Q1JFQVRFRF9BVHwxNzA1MzEwMDAwMDAwfDUwN2YxZjc3YmNmODZjZDc5OTQzOTAxMQ")
+                .hasMore(true)
+                .build();
+
+        Map<String, Long> volunteers = new LinkedHashMap<>();
+        IntStream.range(0, PassFixtures.VOLUNTEERS).forEach(i -> volunteers.put("volunteer" + i, 100L + i));
+        stats = StatsResponse.builder()
+                .totalPasses(100_000L)
+                .totalEntriesVerified(60_000L)
+                .totalGoodiesGiven(42_000L)
+                .colleges(IntStream.range(0, PassFixtures.COLLEGES)
+                        .mapToObj(i -> StatsResponse.CollegeStats.builder()
+                                .collegeName("College of Engineering " + i)
+                                .count(1000L - i)
+                                .build())
+                        .collect(Collectors.toList()))
+                .entriesVerifiedBy(volunteers)
+                .goodiesGivenBy(volunteers)
+                .mostEntriesVerifiedBy("volunteer29")
+                .mostGoodiesGivenBy("volunteer29")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] passResponse() throws Exception {
+        return writer.writeValueAsBytes(pass);
+    }
+
+    @Benchmark
+    public byte[] passPage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] passPageScannerFields() throws Exception {
+        return scannerWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] statsResponse() throws Exception {
+        return writer.writeValueAsBytes(stats);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.benchmark.PassFixtures;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.model.Pass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassMappingBenchmark {
+
+    private PassService passService;
+    private Pass pass;
+    private List<Pass> page;
+
+    @Setup
+    public void setUp() {
+        passService = BenchmarkServices.detachedPassService();
+        pass = PassFixtures.verifiedPass();
+        page = PassFixtures.passes(PassPager.DEFAULT_LIMIT, 0.6, 0.4);
+    }
+
+    @Benchmark
+    public PassResponse mapToResponse() {
+        return passService.mapToResponse(pass);
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) {
+        for (Pass item : page) {
+            blackhole.consume(passService.mapToResponse(item));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.benchmark.EmbeddedMongo;
+import com.hackathon.gatepass.benchmark.PassFixtures;
+import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.model.PassStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// getStats reads the counters document; rebuild is the full aggregation it falls back to
+// and that the reconcile job runs, so it is the one that scales with collection size.
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class StatsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int passCount;
+
+    private EmbeddedMongo mongo;
+    private PassStatsService statsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = EmbeddedMongo.start();
+        mongo.seed(PassFixtures.passes(passCount, 0.6, 0.7));
+        statsService = new PassStatsService(mongo.getMongoTemplate(), Duration.ZERO);
+        statsService.rebuild(PassFixtures.EVENT_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongo.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public StatsResponse getStats() {
+        return statsService.getStats(PassFixtures.EVENT_ID);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PassStats rebuild() {
+        return statsService.rebuild(PassFixtures.EVENT_ID);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.benchmark.EmbeddedMongo;
+import com.hackathon.gatepass.benchmark.PassFixtures;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.VerifyRequest;
+import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Every measured scan must hit a pass that is still pending. Iterations run a fixed number of
+// operations rather than for a fixed time, so one iteration consumes at most BATCH_SIZE passes
+// however fast the verify path gets, and the consumed flags are reset between iterations.
+// Scores are milliseconds per batch of BATCH_SIZE operations.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = VerifyPathBenchmark.BATCH_SIZE)
+@Measurement(iterations = 5, batchSize = VerifyPathBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class VerifyPathBenchmark {
+
+    static final int BATCH_SIZE = 2_000;
+    // One spare pass is kept verified for the duplicate scans
+    private static final int POOL_SIZE = BATCH_SIZE + 1;
+
+    private EmbeddedMongo mongo;
+    private PassService passService;
+    private List<Pass> pool;
+    private String duplicateCode;
+    private int next;
+    private final VerifyRequest verifyRequest = VerifyRequest.builder().verifiedBy("volunteer1").build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = EmbeddedMongo.start();
+        pool = PassFixtures.passes(POOL_SIZE, 0.0, 0.0);
+        mongo.seed(pool);
+        passService = BenchmarkServices.passService(mongo.getMongoTemplate());
+        passService.rebuildStats(PassFixtures.EVENT_ID);
+
+        duplicateCode = pool.get(POOL_SIZE - 1).getPassCode();
+        passService.scanAndApply(PassFixtures.EVENT_ID, scan(duplicateCode, PassAction.ENTRY));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPool() {
+        mongo.getMongoTemplate().updateMulti(
+                Query.query(Criteria.where("pass_code").ne(duplicateCode).and("entry_verified").is(true)),
+                new Update().set("entry_verified", false)
+                        .unset("verified_by").unset("entry_verified_at").unset("entry_op_id"),
+                Pass.class);
+        next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongo.close();
+    }
+
+    @Benchmark
+    public PassResponse verifyEntryById() {
+        return passService.verifyEntry(PassFixtures.EVENT_ID, nextPass().getId(), verifyRequest);
+    }
+
+    @Benchmark
+    public PassResponse scanAndVerify() {
+        String code = nextPass().getPassCode();
+        passService.getPassByCode(PassFixtures.EVENT_ID, code);
+        return passService.scanAndApply(PassFixtures.EVENT_ID, scan(code, PassAction.ENTRY));
+    }
+
+    @Benchmark
+    public String duplicateScan() {
+        try {
+            passService.scanAndApply(PassFixtures.EVENT_ID, scan(duplicateCode, PassAction.ENTRY));
+            throw new IllegalStateException("Duplicate scan was applied");
+        } catch (PassAlreadyVerifiedException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Benchmark
+    public PassResponse cachedLookup() {
+        return passService.getPassByCode(PassFixtures.EVENT_ID, duplicateCode);
+    }
+
+    private Pass nextPass() {
+        if (next == POOL_SIZE - 1) {
+            throw new IllegalStateException("Verify pool exhausted, an iteration ran more than BATCH_SIZE operations");
+        }
+        return pool.get(next++);
+    }
+
+    private ScanActionRequest scan(String passCode, PassAction action) {
+        return ScanActionRequest.builder()
+                .passCode(passCode)
+                .action(action)
+                .verifiedBy("volunteer1")
+                .build();
+    }
+}
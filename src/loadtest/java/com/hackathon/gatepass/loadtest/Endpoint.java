@@ -0,0 +1,18 @@
+package com.hackathon.gatepass.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+enum Endpoint {
+
+    SCAN("scan", "GET /api/passes/scan", 250),
+    VERIFY("verify", "POST /api/passes/{id}/verify-entry", 250),
+    DUPLICATE("duplicate", "POST /api/passes/scan (already verified)", 250),
+    STATS("stats", "GET /api/passes/stats", 500);
+
+    private final String key;
+    private final String label;
+    private final double defaultP99BudgetMillis;
+}
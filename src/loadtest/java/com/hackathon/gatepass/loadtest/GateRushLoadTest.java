@@ -0,0 +1,363 @@
+package com.hackathon.gatepass.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.gatepass.GatePassApplication;
+import com.hackathon.gatepass.service.AdmissionControl;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Boots the application against MongoDB (an in-process stand-in unless --mongo-uri is given),
+// seeds passes through the import endpoint and replays a morning entry wave: every gate scans a
+// fresh pass and verifies it, some scans are repeats of already admitted passes, and organiser
+// dashboards poll stats. Exits non-zero when a latency or error budget is exceeded.
+public class GateRushLoadTest {
+
+    private static final int SEED_CHUNK = 10_000;
+    private static final int[] PERCENTILES = {50, 95, 99};
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<Endpoint, EndpointRecorder> recorders = new EnumMap<>(Endpoint.class);
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicBoolean poolExhausted = new AtomicBoolean();
+    private final AtomicInteger nextPass = new AtomicInteger();
+    private final AtomicInteger verifiedCount = new AtomicInteger();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<String> passCodes;
+    private AtomicReferenceArray<String> verifiedCodes;
+
+    GateRushLoadTest(LoadTestOptions options) {
+        this.options = options;
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new EndpointRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = new GateRushLoadTest(LoadTestOptions.parse(args)).run();
+        System.exit(exitCode);
+    }
+
+    int run() throws Exception {
+        int passes = options.integer("passes", 20_000);
+        int gates = options.integer("gates", 32);
+        int dashboards = options.integer("dashboards", 4);
+        Duration warmup = options.duration("warmup", Duration.ofSeconds(5));
+        Duration duration = options.duration("duration", Duration.ofSeconds(30));
+        String stack = options.string("stack", "servlet");
+        if (!stack.equals("servlet") && !stack.equals("reactive")) {
+            throw new IllegalArgumentException("--stack must be servlet or reactive");
+        }
+
+        String mongoUri = options.string("mongo-uri", null);
+        InMemoryMongo standIn = mongoUri == null ? InMemoryMongo.start() : null;
+        if (standIn != null) {
+            mongoUri = standIn.getConnectionString() + "/gatepass_loadtest";
+        }
+
+        ConfigurableApplicationContext app = startApplication(mongoUri, stack);
+        try {
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort() + "/api/passes";
+
+            seed(passes);
+            log("Seeded %d passes, running %d gates and %d dashboards against the %s stack for %s after %s warm-up",
+                    passes, gates, dashboards, stack, duration, warmup);
+
+            ExecutorService workers = Executors.newFixedThreadPool(gates + dashboards);
+            for (int i = 0; i < gates; i++) {
+                String gate = "gate-" + i;
+                workers.submit(() -> runGate(gate));
+            }
+            for (int i = 0; i < dashboards; i++) {
+                String dashboard = "dashboard-" + i;
+                workers.submit(() -> runDashboard(dashboard));
+            }
+
+            Thread.sleep(warmup.toMillis());
+            recorders.values().forEach(EndpointRecorder::reset);
+            long measuredFrom = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+            double measuredSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+            workers.shutdown();
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+
+            return report(measuredSeconds, stack, passes, gates, dashboards);
+        } finally {
+            app.close();
+            if (standIn != null) {
+                standIn.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(String mongoUri, String stack) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.data.mongodb.database=gatepass_loadtest",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.data.mongodb=WARN",
+                "--logging.level.com.hackathon.gatepass=WARN",
+                "--logging.level.de.bwaldvogel.mongo=OFF",
+                // Gates run closed-loop without think time, far above a real scanner's rate
+                "--admission.device-rate=100000",
+                "--admission.device-burst=100000"));
+        if (stack.equals("reactive")) {
+            args.add("--spring.profiles.active=reactive");
+        }
+        // Added last so --app.* overrides win
+        args.addAll(options.applicationArgs());
+        return new SpringApplicationBuilder(GatePassApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void seed(int passes) throws IOException, InterruptedException {
+        List<String> codes = new ArrayList<>(passes);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < passes; i++) {
+            String code = String.format("RUSH-%07d", i);
+            codes.add(code);
+            body.append("{\"passCode\":\"").append(code)
+                    .append("\",\"teamName\":\"Team ").append(i / 4)
+                    .append("\",\"name\":\"Participant ").append(i)
+                    .append("\",\"email\":\"participant").append(i).append("@example.com")
+                    .append("\",\"college\":\"College of Engineering ").append(i % 150)
+                    .append("\"}\n");
+            if ((i + 1) % SEED_CHUNK == 0 || i == passes - 1) {
+                HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/import"))
+                                .header("Content-Type", "application/x-ndjson")
+                                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+                }
+                body.setLength(0);
+            }
+        }
+
+        Collections.shuffle(codes, new Random(42));
+        passCodes = codes;
+        verifiedCodes = new AtomicReferenceArray<>(passes);
+    }
+
+    private void runGate(String gate) {
+        double duplicateRatio = options.decimal("duplicate-ratio", 0.1);
+        long thinkMillis = options.duration("think-time", Duration.ZERO).toMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running.get()) {
+            String duplicate = random.nextDouble() < duplicateRatio ? randomVerifiedCode(random) : null;
+            if (duplicate != null) {
+                duplicateScan(duplicate, gate);
+            } else {
+                int index = nextPass.getAndIncrement();
+                if (index >= passCodes.size()) {
+                    poolExhausted.set(true);
+                    return;
+                }
+                scanAndVerify(passCodes.get(index), gate);
+            }
+            if (thinkMillis > 0) {
+                sleep(random.nextLong(thinkMillis + 1));
+            }
+        }
+    }
+
+    private void runDashboard(String dashboard) {
+        long pollMillis = options.duration("stats-poll", Duration.ofSeconds(1)).toMillis();
+        while (running.get()) {
+            long start = System.nanoTime();
+            send(Endpoint.STATS, HttpRequest.newBuilder(URI.create(baseUrl + "/stats"))
+                    .header(AdmissionControl.DEVICE_HEADER, dashboard).GET(), 200);
+            sleep(pollMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private void scanAndVerify(String passCode, String gate) {
+        HttpResponse<String> scanned = send(Endpoint.SCAN, HttpRequest.newBuilder(
+                URI.create(baseUrl + "/scan?code=" + URLEncoder.encode(passCode, StandardCharsets.UTF_8)))
+                .header(AdmissionControl.DEVICE_HEADER, gate).GET(), 200);
+        if (scanned == null) {
+            return;
+        }
+
+        String id;
+        try {
+            id = objectMapper.readTree(scanned.body()).path("id").asText();
+        } catch (IOException ex) {
+            return;
+        }
+        HttpResponse<String> verified = send(Endpoint.VERIFY, json(baseUrl + "/" + id + "/verify-entry",
+                "{\"verifiedBy\":\"" + gate + "\"}").header(AdmissionControl.DEVICE_HEADER, gate), 200);
+        if (verified != null) {
+            verifiedCodes.set(verifiedCount.getAndIncrement(), passCode);
+        }
+    }
+
+    private void duplicateScan(String passCode, String gate) {
+        send(Endpoint.DUPLICATE, json(baseUrl + "/scan",
+                "{\"passCode\":\"" + passCode + "\",\"action\":\"ENTRY\",\"verifiedBy\":\"" + gate + "\"}")
+                .header(AdmissionControl.DEVICE_HEADER, gate), 400);
+    }
+
+    private String randomVerifiedCode(ThreadLocalRandom random) {
+        int count = verifiedCount.get();
+        // A slot can still be null while its writer is between the increment and the set
+        return count == 0 ? null : verifiedCodes.get(random.nextInt(count));
+    }
+
+    private HttpRequest.Builder json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(Endpoint endpoint, HttpRequest.Builder request, int expectedStatus) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() == expectedStatus;
+            recorders.get(endpoint).record(start, success);
+            return success ? response : null;
+        } catch (IOException ex) {
+            recorders.get(endpoint).record(start, false);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running.set(false);
+            return null;
+        }
+    }
+
+    private int report(double measuredSeconds, String stack, int passes, int gates, int dashboards) throws IOException {
+        double maxErrorRate = options.decimal("max-error-rate", 0.001);
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        double admissionsPerSecond = 0;
+
+        log("%-42s %8s %9s %9s %9s %9s %9s %7s", "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointRecorder recorder = recorders.get(endpoint);
+            Histogram histogram = recorder.histogram();
+            long count = histogram.getTotalCount();
+            long errors = recorder.errors();
+            double throughput = count / measuredSeconds;
+            if (endpoint == Endpoint.VERIFY) {
+                admissionsPerSecond = (count - errors) / measuredSeconds;
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("label", endpoint.getLabel());
+            result.put("count", count);
+            result.put("throughputPerSecond", round(throughput));
+            result.put("errors", errors);
+            for (int percentile : PERCENTILES) {
+                double millis = histogram.getValueAtPercentile(percentile) / 1000.0;
+                result.put("p" + percentile + "Millis", round(millis));
+
+                double defaultBudget = percentile == 99 ? endpoint.getDefaultP99BudgetMillis() : Double.NaN;
+                double budget = options.decimal("budget." + endpoint.getKey() + ".p" + percentile, defaultBudget);
+                if (count > 0 && !Double.isNaN(budget) && millis > budget) {
+                    violations.add(String.format("%s p%d %.2f ms exceeds budget of %.2f ms",
+                            endpoint.getLabel(), percentile, millis, budget));
+                }
+            }
+            result.put("maxMillis", round(histogram.getMaxValue() / 1000.0));
+            if (count > 0 && (double) errors / count > maxErrorRate) {
+                violations.add(String.format("%s error rate %.4f exceeds %.4f",
+                        endpoint.getLabel(), (double) errors / count, maxErrorRate));
+            }
+            endpoints.put(endpoint.getKey(), result);
+
+            log("%-42s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d", endpoint.getLabel(), count, throughput,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(95) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0, errors);
+        }
+
+        if (poolExhausted.get()) {
+            violations.add("Pass pool exhausted before the run ended, raise --passes");
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("stack", stack);
+        report.put("passes", passes);
+        report.put("gates", gates);
+        report.put("dashboards", dashboards);
+        report.put("measuredSeconds", round(measuredSeconds));
+        report.put("admissionsPerSecond", round(admissionsPerSecond));
+        report.put("endpoints", endpoints);
+        report.put("violations", violations);
+
+        String reportPath = options.string("report", null);
+        if (reportPath != null) {
+            File file = new File(reportPath);
+            file.getParentFile().mkdirs();
+            objectMapper.writeValue(file, report);
+            log("Report written to %s", file.getAbsolutePath());
+        }
+
+        log("Admissions: %.1f/s", admissionsPerSecond);
+        if (violations.isEmpty()) {
+            log("All latency budgets met");
+            return 0;
+        }
+        violations.forEach(violation -> log("BUDGET EXCEEDED: %s", violation));
+        return 1;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println(String.format(format, args));
+    }
+}
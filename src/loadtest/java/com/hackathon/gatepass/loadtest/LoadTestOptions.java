@@ -0,0 +1,59 @@
+package com.hackathon.gatepass.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Parses --key=value arguments; --app.<property>=<value> is passed through to the application.
+final class LoadTestOptions {
+
+    private static final String APP_PREFIX = "app.";
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int integer(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    double decimal(String key, double defaultValue) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+    }
+
+    Duration duration(String key, Duration defaultValue) {
+        return values.containsKey(key) ? DurationStyle.detectAndParse(values.get(key)) : defaultValue;
+    }
+
+    List<String> applicationArgs() {
+        List<String> args = new ArrayList<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith(APP_PREFIX)) {
+                args.add("--" + key.substring(APP_PREFIX.length()) + "=" + value);
+            }
+        });
+        return args;
+    }
+}
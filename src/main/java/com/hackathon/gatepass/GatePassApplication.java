@@ -2,8 +2,10 @@ package com.hackathon.gatepass;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GatePassApplication {
     public static void main(String[] args) {
         SpringApplication.run(GatePassApplication.class, args);
@@ -0,0 +1,63 @@
+package com.hackathon.gatepass.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.gatepass.dto.ErrorResponse;
+import com.hackathon.gatepass.service.Admission;
+import com.hackathon.gatepass.service.AdmissionControl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+// Not a @Component: it runs inside the security filter chain, after authentication has
+// identified the caller, so the per-user buckets see the real principal
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.Priority priority = AdmissionControl.classify(request.getMethod(), request.getRequestURI());
+        AdmissionControl.ClientKey clientKey = AdmissionControl.clientKey(
+                request.getHeader(AdmissionControl.DEVICE_HEADER),
+                SecurityContextHolder.getContext().getAuthentication(), request.getRemoteAddr());
+
+        Admission admission = admissionControl.admit(priority, clientKey, true);
+        if (!admission.isAdmitted()) {
+            reject(request, response, admission);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Admission admission)
+            throws IOException {
+        HttpStatus status = admission.getHttpStatus();
+        ErrorResponse error = ErrorResponse.builder()
+                .status(status.value())
+                .message(admission.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(Instant.now())
+                .build();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hackathon.gatepass.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.gatepass.dto.ErrorResponse;
+import com.hackathon.gatepass.service.Admission;
+import com.hackathon.gatepass.service.AdmissionControl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.Optional;
+
+// Reactive counterpart of AdmissionControlFilter; scans never wait for a permit on the event loop
+@RequiredArgsConstructor
+public class AdmissionControlWebFilter implements WebFilter {
+
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        AdmissionControl.Priority priority = AdmissionControl.classify(
+                request.getMethod().name(), request.getPath().value());
+        if (priority == AdmissionControl.Priority.EXEMPT) {
+            return chain.filter(exchange);
+        }
+
+        String remoteAddress = Optional.ofNullable(request.getRemoteAddress())
+                .map(InetSocketAddress::getHostString)
+                .orElse(null);
+        return ReactiveSecurityContextHolder.getContext()
+                .flatMap(context -> Mono.justOrEmpty(context.getAuthentication()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> {
+                    AdmissionControl.ClientKey clientKey = AdmissionControl.clientKey(
+                            request.getHeaders().getFirst(AdmissionControl.DEVICE_HEADER),
+                            authentication.orElse(null), remoteAddress);
+                    Admission admission = admissionControl.admit(priority, clientKey, false);
+                    if (!admission.isAdmitted()) {
+                        return reject(exchange, admission);
+                    }
+                    return chain.filter(exchange).doFinally(signal -> admission.release());
+                });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Admission admission) {
+        HttpStatus status = admission.getHttpStatus();
+        ErrorResponse error = ErrorResponse.builder()
+                .status(status.value())
+                .message(admission.getMessage())
+                .path(exchange.getRequest().getPath().value())
+                .timestamp(Instant.now())
+                .build();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error))));
+        } catch (JsonProcessingException ex) {
+            return Mono.error(ex);
+        }
+    }
+}
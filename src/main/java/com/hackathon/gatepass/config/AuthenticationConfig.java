@@ -0,0 +1,24 @@
+package com.hackathon.gatepass.config;
+
+import com.hackathon.gatepass.service.CachingAuthenticationProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Shared by the servlet and reactive security chains
+@Configuration
+public class AuthenticationConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(CachingAuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hackathon.gatepass.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.gatepass.dto.ErrorResponse;
+import com.hackathon.gatepass.service.AuthTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// Reactive counterpart of BearerTokenAuthenticationFilter; not a @Component for the same reason
+@RequiredArgsConstructor
+public class BearerTokenWebFilter implements WebFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final AuthTokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return chain.filter(exchange);
+        }
+
+        Optional<AuthTokenService.VerifiedToken> verified = tokenService.verify(header.substring(PREFIX.length()).trim());
+        if (verified.isEmpty()) {
+            return reject(exchange);
+        }
+
+        return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(
+                        verified.get().getUsername(), null, verified.get().getAuthorities())));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.UNAUTHORIZED.value())
+                .message("Invalid or expired token")
+                .path(exchange.getRequest().getPath().value())
+                .timestamp(Instant.now())
+                .build();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error))));
+        } catch (JsonProcessingException ex) {
+            return Mono.error(ex);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hackathon.gatepass.config;
+
+import com.hackathon.gatepass.service.PassFieldSet;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer passFieldFilters() {
+        return builder -> builder.filters(PassFieldSet.defaultFilters());
+    }
+}
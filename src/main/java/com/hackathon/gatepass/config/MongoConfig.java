@@ -1,33 +1,62 @@
 package com.hackathon.gatepass.config;
 
 import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassTombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.index.IndexInfo;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.index.IndexResolver;
 import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
+
+@Slf4j
 @Configuration
 @EnableMongoRepositories(basePackages = "com.hackathon.gatepass.repository")
 @EnableMongoAuditing
 public class MongoConfig {
 
+    // Replaced by indexes that also serve the created_at paging order; a left-over one could still win
+    // the plan and sort the whole match in memory
+    private static final List<String> SUPERSEDED_PASS_INDEXES =
+            List.of("event_created_at_id", "event_college_key_entry_goodies");
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
     @Autowired
     private MongoMappingContext mongoMappingContext;
 
+    @Bean
+    public MessageListenerContainer messageListenerContainer(MongoTemplate template) {
+        return new DefaultMessageListenerContainer(template);
+    }
+
     @PostConstruct
     public void initIndexes() {
-        IndexOperations indexOps = mongoTemplate.indexOps(Pass.class);
         IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
-        resolver.resolveIndexFor(Pass.class).forEach(indexOps::ensureIndex);
+        for (Class<?> type : List.of(Pass.class, PassTombstone.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::createIndex);
+        }
+
+        IndexOperations passIndexes = mongoTemplate.indexOps(Pass.class);
+        for (IndexInfo index : passIndexes.getIndexInfo()) {
+            if (SUPERSEDED_PASS_INDEXES.contains(index.getName())) {
+                passIndexes.dropIndex(index.getName());
+                log.info("Dropped superseded index {}", index.getName());
+            }
+        }
     }
 }
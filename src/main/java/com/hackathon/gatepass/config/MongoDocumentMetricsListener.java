@@ -0,0 +1,88 @@
+package com.hackathon.gatepass.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latency per command and collection is already recorded by Boot as mongodb.driver.commands;
+// this adds how many documents each command returned or touched.
+public class MongoDocumentMetricsListener implements CommandListener {
+
+    private static final Set<String> CURSOR_COMMANDS = Set.of("find", "aggregate", "getMore");
+    private static final Set<String> COUNT_COMMANDS = Set.of("insert", "update", "delete", "count");
+
+    private final Meter.MeterProvider<DistributionSummary> documents;
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoDocumentMetricsListener(MeterRegistry meterRegistry) {
+        this.documents = DistributionSummary.builder("mongodb.driver.documents")
+                .description("Documents returned or affected per MongoDB command")
+                .baseUnit("documents")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String collection = collectionOf(event.getCommandName(), event.getCommand());
+        if (collection != null) {
+            collections.put(event.getRequestId(), collection);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        if (collection == null) {
+            return;
+        }
+        long count = documentCount(event.getCommandName(), event.getResponse());
+        if (count >= 0) {
+            documents.withTags("command", event.getCommandName(), "collection", collection).record(count);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collections.remove(event.getRequestId());
+    }
+
+    private String collectionOf(String commandName, BsonDocument command) {
+        if (!CURSOR_COMMANDS.contains(commandName) && !COUNT_COMMANDS.contains(commandName)
+                && !"findAndModify".equals(commandName)) {
+            return null;
+        }
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    private long documentCount(String commandName, BsonDocument response) {
+        if (CURSOR_COMMANDS.contains(commandName)) {
+            BsonDocument cursor = response.getDocument("cursor", null);
+            if (cursor == null) {
+                return -1;
+            }
+            BsonArray batch = cursor.getArray("getMore".equals(commandName) ? "nextBatch" : "firstBatch", null);
+            return batch == null ? -1 : batch.size();
+        }
+        if ("findAndModify".equals(commandName)) {
+            BsonDocument lastError = response.getDocument("lastErrorObject", null);
+            if (lastError != null && lastError.isNumber("n")) {
+                return lastError.getNumber("n").longValue();
+            }
+            BsonValue value = response.get("value");
+            return value == null || value.isNull() ? 0 : 1;
+        }
+        return response.isNumber("n") ? response.getNumber("n").longValue() : -1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hackathon.gatepass.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Kept apart from MongoConfig, which needs the MongoTemplate that this customizer helps build
+@Configuration
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDocumentMetrics(MeterRegistry meterRegistry) {
+        return builder -> builder.addCommandListener(new MongoDocumentMetricsListener(meterRegistry));
+    }
+}
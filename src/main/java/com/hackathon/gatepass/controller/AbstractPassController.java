@@ -0,0 +1,171 @@
+package com.hackathon.gatepass.controller;
+
+import com.hackathon.gatepass.dto.BatchVerifyRequest;
+import com.hackathon.gatepass.dto.BatchVerifyResponse;
+import com.hackathon.gatepass.dto.CreatePassRequest;
+import com.hackathon.gatepass.dto.PageParams;
+import com.hackathon.gatepass.dto.PageResponse;
+import com.hackathon.gatepass.dto.PassFilterParams;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.dto.SyncResponse;
+import com.hackathon.gatepass.dto.ThroughputResponse;
+import com.hackathon.gatepass.dto.VerifyRequest;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.service.IdempotencyService;
+import com.hackathon.gatepass.service.PassEvents;
+import com.hackathon.gatepass.service.PassExportService;
+import com.hackathon.gatepass.service.PassFieldSet;
+import com.hackathon.gatepass.service.PassImportService;
+import com.hackathon.gatepass.service.PassService;
+import com.hackathon.gatepass.service.PassThroughputService;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Routes and request handling shared by PassController (servlet) and ReactivePassController (reactive).
+// Handlers here only call the blocking services; the reactive profile runs them off the event loop.
+@RequestMapping({"/api/passes", "/api/events/{eventId}/passes"})
+public abstract class AbstractPassController {
+
+    protected final PassService passService;
+    protected final PassThroughputService throughputService;
+    protected final PassEvents passEvents;
+
+    protected AbstractPassController(PassService passService,
+                                     PassThroughputService throughputService,
+                                     PassEvents passEvents) {
+        this.passService = passService;
+        this.throughputService = throughputService;
+        this.passEvents = passEvents;
+    }
+
+    @PostMapping
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PassResponse> createPass(
+            @PathVariable(required = false) String eventId,
+            @Valid @RequestBody CreatePassRequest request) {
+        PassResponse response = passService.createPass(event(eventId), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/verify-batch")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<BatchVerifyResponse> verifyBatch(
+            @PathVariable(required = false) String eventId,
+            @Valid @RequestBody BatchVerifyRequest request) {
+        BatchVerifyResponse response = passService.verifyBatch(event(eventId), request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/sync")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'SCANNER')")
+    public ResponseEntity<SyncResponse> sync(
+            @PathVariable(required = false) String eventId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        SyncResponse response = passService.getChangesSince(event(eventId), since, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/stats/rebuild")
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StatsResponse> rebuildStats(@PathVariable(required = false) String eventId) {
+        StatsResponse stats = passService.rebuildStats(event(eventId));
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/throughput")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ThroughputResponse> getThroughput(
+            @PathVariable(required = false) String eventId,
+            @RequestParam(defaultValue = "entry") String action,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer interval) {
+        ThroughputResponse throughput = throughputService.getThroughput(event(eventId), action, from, to, interval);
+        return ResponseEntity.ok(throughput);
+    }
+
+    @PostMapping("/throughput/rebuild")
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildThroughput(@PathVariable(required = false) String eventId) {
+        throughputService.rebuild(event(eventId));
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}")
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deletePass(
+            @PathVariable(required = false) String eventId,
+            @PathVariable String id) {
+        passService.deletePass(event(eventId), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // /api/passes is the default event's collection of passes
+    protected String event(String eventId) {
+        return passEvents.resolve(eventId);
+    }
+
+    protected ResponseEntity<MappingJacksonValue> allPasses(String event, PageParams page,
+                                                            Predicate<String> notModified) {
+        PassFieldSet fieldSet = PassFieldSet.parse(page.getFields());
+        return revalidated(event, notModified, () -> fieldSet.wrap(passService.getAllPasses(event, fieldSet,
+                page.getCursor(), page.getLimit(), page.getSort(), page.getDirection())));
+    }
+
+    protected ResponseEntity<MappingJacksonValue> filteredPasses(String event, PassFilterParams filter,
+                                                                 PageParams page, Predicate<String> notModified) {
+        PassFieldSet fieldSet = PassFieldSet.parse(page.getFields());
+        return revalidated(event, notModified, () -> {
+            PageResponse<PassResponse> passes = passService.getFilteredPasses(event,
+                    filter.getEntryVerified(), filter.getGoodiesGiven(), filter.getVerifiedBy(),
+                    filter.getGoodiesGivenBy(), filter.getCollege(),
+                    fieldSet, page.getCursor(), page.getLimit(), page.getSort(), page.getDirection());
+            return fieldSet.wrap(passes);
+        });
+    }
+
+    // Checked against the event's data version; null tells Spring the request was answered with 304
+    protected <T> ResponseEntity<T> revalidated(String event, Predicate<String> notModified, Supplier<T> body) {
+        String etag = passService.getDataVersionTag(event);
+        if (notModified.test(etag)) {
+            return null;
+        }
+        return revalidated(etag, body.get());
+    }
+
+    protected static <T> ResponseEntity<T> revalidated(String etag, T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
+    }
+
+    protected static PassImportService.ImportFormat importFormat(MediaType contentType) {
+        return contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? PassImportService.ImportFormat.CSV
+                : PassImportService.ImportFormat.NDJSON;
+    }
+
+    protected static String exportFileHeader(PassExportService.ExportFormat format, String event) {
+        return ContentDisposition.attachment().filename(format.fileName(event)).build().toString();
+    }
+
+    // What an Idempotency-Key is bound to; a retry with the same key must describe the same request
+    protected static String idempotentRequest(String event, ScanActionRequest request) {
+        return IdempotencyService.request(event, request.getAction(), "code: " + request.getPassCode(),
+                request.getVerifiedBy());
+    }
+
+    protected static String idempotentRequest(String event, PassAction action, String id, VerifyRequest request) {
+        return IdempotencyService.request(event, action, "id: " + id, request.getVerifiedBy());
+    }
+}
@@ -5,6 +5,7 @@ import com.hackathon.gatepass.dto.LoginResponse;
 import com.hackathon.gatepass.dto.SignupRequest;
 import com.hackathon.gatepass.model.User;
 import com.hackathon.gatepass.repository.UserRepository;
+import com.hackathon.gatepass.service.AuthTokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -31,6 +32,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthTokenService tokenService;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@Valid @RequestBody SignupRequest signupRequest) {
@@ -85,10 +87,16 @@ public class AuthController {
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList());
 
+            AuthTokenService.IssuedToken token = tokenService.issue(
+                    authentication.getName(), authentication.getAuthorities());
+
             LoginResponse response = LoginResponse.builder()
                     .username(authentication.getName())
                     .roles(roles)
                     .message("Login successful")
+                    .token(token.getToken())
+                    .tokenType("Bearer")
+                    .expiresAt(token.getExpiresAt())
                     .build();
 
             return ResponseEntity.ok(response);
@@ -106,9 +114,8 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
+    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+        // Resolved from the request rather than SecurityContextHolder so it also works under the reactive profile
         if (authentication == null || !authentication.isAuthenticated() || 
             authentication.getPrincipal().equals("anonymousUser")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -1,88 +1,174 @@
 package com.hackathon.gatepass.controller;
 
-import com.hackathon.gatepass.dto.CreatePassRequest;
+import com.hackathon.gatepass.dto.ImportResponse;
+import com.hackathon.gatepass.dto.PageParams;
+import com.hackathon.gatepass.dto.PassFilterParams;
 import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.SignPassCodesResponse;
 import com.hackathon.gatepass.dto.StatsResponse;
 import com.hackathon.gatepass.dto.VerifyRequest;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.service.IdempotencyService;
+import com.hackathon.gatepass.service.PassEvents;
+import com.hackathon.gatepass.service.PassExportService;
+import com.hackathon.gatepass.service.PassFieldSet;
+import com.hackathon.gatepass.service.PassImportService;
 import com.hackathon.gatepass.service.PassService;
+import com.hackathon.gatepass.service.PassThroughputService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
-@RequestMapping("/api/passes")
-@RequiredArgsConstructor
-public class PassController {
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PassController extends AbstractPassController {
 
-    private final PassService passService;
+    private final PassImportService passImportService;
+    private final PassExportService passExportService;
+    private final IdempotencyService idempotencyService;
 
-    @PostMapping
-//    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PassResponse> createPass(@Valid @RequestBody CreatePassRequest request) {
-        PassResponse response = passService.createPass(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public PassController(PassService passService,
+                          PassImportService passImportService,
+                          PassExportService passExportService,
+                          PassThroughputService throughputService,
+                          IdempotencyService idempotencyService,
+                          PassEvents passEvents) {
+        super(passService, throughputService, passEvents);
+        this.passImportService = passImportService;
+        this.passExportService = passExportService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/scan")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'SCANNER')")
-    public ResponseEntity<PassResponse> scanPass(@RequestParam String code) {
-        PassResponse response = passService.getPassByCode(code);
+    public ResponseEntity<MappingJacksonValue> scanPass(
+            @PathVariable(required = false) String eventId,
+            @RequestParam String code,
+            @RequestParam(required = false) String fields) {
+        PassFieldSet fieldSet = PassFieldSet.parse(fields);
+        PassResponse response = passService.getPassByCode(event(eventId), code);
+        return ResponseEntity.ok(fieldSet.wrap(response));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResponse> importPasses(
+            @PathVariable(required = false) String eventId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(defaultValue = "false") boolean ordered,
+            InputStream body) throws IOException {
+        ImportResponse response = passImportService.importPasses(event(eventId), body,
+                importFormat(contentType), ordered);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/scan")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<PassResponse> scanAndApply(
+            @PathVariable(required = false) String eventId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ScanActionRequest request) {
+        String event = event(eventId);
+        PassResponse response = idempotencyService.execute(idempotencyKey, idempotentRequest(event, request),
+                () -> passService.scanAndApply(event, request));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{id}/verify-entry")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<PassResponse> verifyEntry(
+            @PathVariable(required = false) String eventId,
             @PathVariable String id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody VerifyRequest request) {
-        PassResponse response = passService.verifyEntry(id, request);
+        String event = event(eventId);
+        PassResponse response = idempotencyService.execute(idempotencyKey,
+                idempotentRequest(event, PassAction.ENTRY, id, request),
+                () -> passService.verifyEntry(event, id, request));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{id}/give-goodies")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<PassResponse> giveGoodies(
+            @PathVariable(required = false) String eventId,
             @PathVariable String id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody VerifyRequest request) {
-        PassResponse response = passService.giveGoodies(id, request);
+        String event = event(eventId);
+        PassResponse response = idempotencyService.execute(idempotencyKey,
+                idempotentRequest(event, PassAction.GOODIES, id, request),
+                () -> passService.giveGoodies(event, id, request));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
 //    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<PassResponse>> getAllPasses() {
-        List<PassResponse> responses = passService.getAllPasses();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<MappingJacksonValue> getAllPasses(
+            @PathVariable(required = false) String eventId,
+            PageParams page,
+            WebRequest webRequest) {
+        return allPasses(event(eventId), page, webRequest::checkNotModified);
     }
 
     @GetMapping("/filter")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    public ResponseEntity<List<PassResponse>> getFilteredPasses(
-            @RequestParam(required = false) Boolean entryVerified,
-            @RequestParam(required = false) Boolean goodiesGiven,
-            @RequestParam(required = false) String verifiedBy,
-            @RequestParam(required = false) String goodiesGivenBy,
-            @RequestParam(required = false) String college) {
-        List<PassResponse> responses = passService.getFilteredPasses(
-                entryVerified, goodiesGiven, verifiedBy, goodiesGivenBy, college);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<MappingJacksonValue> getFilteredPasses(
+            @PathVariable(required = false) String eventId,
+            PassFilterParams filter,
+            PageParams page,
+            WebRequest webRequest) {
+        return filteredPasses(event(eventId), filter, page, webRequest::checkNotModified);
+    }
+
+    // Written on the request thread straight to the response, so it holds its admission permit for
+    // the whole export and is not cut off by the async request timeout
+    @GetMapping("/export")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public void exportPasses(
+            @PathVariable(required = false) String eventId,
+            PassFilterParams filter,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        String event = event(eventId);
+        PassExportService.ExportFormat exportFormat = PassExportService.ExportFormat.fromParam(format);
+        response.setContentType(exportFormat.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, exportFileHeader(exportFormat, event));
+        passExportService.export(event, filter, exportFormat, response.getOutputStream());
     }
 
     @GetMapping("/stats")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    public ResponseEntity<StatsResponse> getStats() {
-        StatsResponse stats = passService.getStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<StatsResponse> getStats(
+            @PathVariable(required = false) String eventId,
+            WebRequest webRequest) {
+        String event = event(eventId);
+        return revalidated(event, webRequest::checkNotModified, () -> passService.getStats(event));
     }
 
-    @DeleteMapping("/{id}")
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public SseEmitter streamStats(@PathVariable(required = false) String eventId) {
+        return passService.subscribeToDashboard(event(eventId));
+    }
+
+    @PostMapping("/codes/sign")
 //    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deletePass(@PathVariable String id) {
-        passService.deletePass(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<SignPassCodesResponse> signPassCodes(
+            @PathVariable(required = false) String eventId,
+            @RequestParam(defaultValue = "false") boolean rotate) {
+        SignPassCodesResponse response = passService.signPassCodes(event(eventId), rotate);
+        return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,205 @@
+package com.hackathon.gatepass.controller;
+
+import com.hackathon.gatepass.dto.DashboardUpdate;
+import com.hackathon.gatepass.dto.ImportResponse;
+import com.hackathon.gatepass.dto.PageParams;
+import com.hackathon.gatepass.dto.PassFilterParams;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.SignPassCodesResponse;
+import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.dto.VerifyRequest;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.service.IdempotencyService;
+import com.hackathon.gatepass.service.PassEvents;
+import com.hackathon.gatepass.service.PassExportService;
+import com.hackathon.gatepass.service.PassFieldSet;
+import com.hackathon.gatepass.service.PassImportService;
+import com.hackathon.gatepass.service.PassService;
+import com.hackathon.gatepass.service.PassThroughputService;
+import com.hackathon.gatepass.service.ReactiveIdempotencyService;
+import com.hackathon.gatepass.service.ReactivePassService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// PassController's routes for the reactive profile. Mono/Flux handlers run on the event loop; the
+// handlers shared through AbstractPassController return plain values and run on the blocking executor.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePassController extends AbstractPassController {
+
+    private static final int IMPORT_PREFETCH = 16;
+    private static final int EXPORT_CHUNK_SIZE = 64 * 1024;
+
+    private final ReactivePassService reactivePassService;
+    private final PassImportService passImportService;
+    private final PassExportService passExportService;
+    private final ReactiveIdempotencyService idempotencyService;
+
+    public ReactivePassController(ReactivePassService reactivePassService,
+                                  PassService passService,
+                                  PassImportService passImportService,
+                                  PassExportService passExportService,
+                                  PassThroughputService throughputService,
+                                  ReactiveIdempotencyService idempotencyService,
+                                  PassEvents passEvents) {
+        super(passService, throughputService, passEvents);
+        this.reactivePassService = reactivePassService;
+        this.passImportService = passImportService;
+        this.passExportService = passExportService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @GetMapping("/scan")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'SCANNER')")
+    public Mono<ResponseEntity<MappingJacksonValue>> scanPass(
+            @PathVariable(required = false) String eventId,
+            @RequestParam String code,
+            @RequestParam(required = false) String fields) {
+        PassFieldSet fieldSet = PassFieldSet.parse(fields);
+        return reactivePassService.getPassByCode(event(eventId), code)
+                .map(response -> ResponseEntity.ok(fieldSet.wrap(response)));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+//    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<ImportResponse>> importPasses(
+            @PathVariable(required = false) String eventId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(defaultValue = "false") boolean ordered,
+            @RequestBody Flux<DataBuffer> body) {
+        PassImportService.ImportFormat format = importFormat(contentType);
+        String event = event(eventId);
+        // The importer streams from an InputStream, so the body is bridged rather than aggregated
+        return Mono.fromCallable(() -> {
+            try (InputStream in = DataBufferUtils.subscriberInputStream(body, IMPORT_PREFETCH)) {
+                return ResponseEntity.ok(passImportService.importPasses(event, in, format, ordered));
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/scan")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public Mono<ResponseEntity<PassResponse>> scanAndApply(
+            @PathVariable(required = false) String eventId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ScanActionRequest request) {
+        String event = event(eventId);
+        return idempotencyService.execute(idempotencyKey, idempotentRequest(event, request),
+                        reactivePassService.scanAndApply(event, request))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{id}/verify-entry")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public Mono<ResponseEntity<PassResponse>> verifyEntry(
+            @PathVariable(required = false) String eventId,
+            @PathVariable String id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody VerifyRequest request) {
+        String event = event(eventId);
+        return idempotencyService.execute(idempotencyKey, idempotentRequest(event, PassAction.ENTRY, id, request),
+                        reactivePassService.verifyEntry(event, id, request))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{id}/give-goodies")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public Mono<ResponseEntity<PassResponse>> giveGoodies(
+            @PathVariable(required = false) String eventId,
+            @PathVariable String id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody VerifyRequest request) {
+        String event = event(eventId);
+        return idempotencyService.execute(idempotencyKey, idempotentRequest(event, PassAction.GOODIES, id, request),
+                        reactivePassService.giveGoodies(event, id, request))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+//    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MappingJacksonValue> getAllPasses(
+            @PathVariable(required = false) String eventId,
+            PageParams page,
+            ServerWebExchange exchange) {
+        return allPasses(event(eventId), page, exchange::checkNotModified);
+    }
+
+    @GetMapping("/filter")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<MappingJacksonValue> getFilteredPasses(
+            @PathVariable(required = false) String eventId,
+            PassFilterParams filter,
+            PageParams page,
+            ServerWebExchange exchange) {
+        return filteredPasses(event(eventId), filter, page, exchange::checkNotModified);
+    }
+
+    // The blocking cursor runs on boundedElastic and its rows are sent in chunks as they are written
+    @GetMapping("/export")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<Flux<DataBuffer>> exportPasses(
+            @PathVariable(required = false) String eventId,
+            PassFilterParams filter,
+            @RequestParam(defaultValue = "csv") String format,
+            ServerWebExchange exchange) {
+        String event = event(eventId);
+        PassExportService.ExportFormat exportFormat = PassExportService.ExportFormat.fromParam(format);
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                passExportService.export(event, filter, exportFormat, out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, exchange.getResponse().bufferFactory(), task -> Schedulers.boundedElastic().schedule(task),
+                EXPORT_CHUNK_SIZE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, exportFileHeader(exportFormat, event))
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public Mono<ResponseEntity<StatsResponse>> getStats(
+            @PathVariable(required = false) String eventId,
+            ServerWebExchange exchange) {
+        String event = event(eventId);
+        return reactivePassService.getDataVersionTag(event).flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.empty()
+                : reactivePassService.getStats(event).map(stats -> revalidated(etag, stats)));
+    }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+//    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public Flux<ServerSentEvent<DashboardUpdate>> streamStats(@PathVariable(required = false) String eventId) {
+        return reactivePassService.subscribeToDashboard(event(eventId))
+                .map(update -> ServerSentEvent.builder(update).event("update").build());
+    }
+
+    @PostMapping("/codes/sign")
+//    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<SignPassCodesResponse>> signPassCodes(
+            @PathVariable(required = false) String eventId,
+            @RequestParam(defaultValue = "false") boolean rotate) {
+        String event = event(eventId);
+        return Mono.fromCallable(() -> ResponseEntity.ok(passService.signPassCodes(event, rotate)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
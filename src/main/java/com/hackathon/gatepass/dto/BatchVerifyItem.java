@@ -0,0 +1,38 @@
+package com.hackathon.gatepass.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hackathon.gatepass.model.PassAction;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVerifyItem {
+
+    private String id;
+
+    private String passCode;
+
+    @NotNull(message = "Action is required")
+    private PassAction action;
+
+    @NotBlank(message = "Verifier name is required")
+    private String verifiedBy;
+
+    private Instant scannedAt;
+
+    @JsonIgnore
+    @AssertTrue(message = "Either id or pass code is required")
+    public boolean isIdentified() {
+        return (id != null && !id.isBlank()) || (passCode != null && !passCode.isBlank());
+    }
+}
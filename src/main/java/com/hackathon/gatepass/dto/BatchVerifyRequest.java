@@ -0,0 +1,23 @@
+package com.hackathon.gatepass.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVerifyRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items per batch")
+    private List<BatchVerifyItem> items;
+}
@@ -0,0 +1,39 @@
+package com.hackathon.gatepass.dto;
+
+import com.hackathon.gatepass.model.PassAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVerifyResponse {
+
+    private long applied;
+    private long alreadyVerified;
+    private long notFound;
+    private List<ItemResult> results;
+
+    public enum ItemOutcome {
+        APPLIED,
+        ALREADY_VERIFIED,
+        NOT_FOUND
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String id;
+        private String passCode;
+        private PassAction action;
+        private ItemOutcome outcome;
+    }
+}
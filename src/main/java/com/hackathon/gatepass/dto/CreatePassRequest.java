@@ -1,7 +1,9 @@
 package com.hackathon.gatepass.dto;
 
+import com.hackathon.gatepass.service.PassCodeSigner;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +18,7 @@ import java.util.List;
 public class CreatePassRequest {
 
     @NotBlank(message = "Pass code is required")
+    @Pattern(regexp = PassCodeSigner.PLAIN_CODE_PATTERN, message = PassCodeSigner.PLAIN_CODE_MESSAGE)
     private String passCode;
 
     @NotBlank(message = "Team name is required")
@@ -0,0 +1,25 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardUpdate {
+
+    private Instant windowEnd;
+    private Long passesCreated;
+    private Long entriesVerified;
+    private Long goodiesGiven;
+    private Long passesDeleted;
+    private Long eventsDropped;
+    private List<PassEvent> events;
+    private StatsResponse stats;
+}
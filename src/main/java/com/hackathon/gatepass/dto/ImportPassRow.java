@@ -0,0 +1,49 @@
+package com.hackathon.gatepass.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportPassRow {
+
+    @JsonAlias("team_id")
+    private String teamId;
+
+    @JsonAlias("team_name")
+    private String teamName;
+
+    private String name;
+    private String email;
+    private String mobile;
+    private String gender;
+    private String location;
+
+    @JsonAlias("user_type")
+    private String userType;
+
+    private String domain;
+    private String course;
+    private String specialization;
+
+    @JsonAlias("year_of_graduation")
+    private Integer yearOfGraduation;
+
+    private String college;
+
+    @JsonAlias("unstop_report_url")
+    private String unstopReportUrl;
+
+    @JsonAlias("ppt_url")
+    private String pptUrl;
+
+    @JsonAlias("pass_code")
+    private String passCode;
+}
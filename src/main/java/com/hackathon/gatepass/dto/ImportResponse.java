@@ -0,0 +1,46 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+
+    private long totalRows;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long skipped;
+    private boolean rowsTruncated;
+
+    // Only rows that were not inserted are listed
+    @Builder.Default
+    private List<RowResult> rows = new ArrayList<>();
+
+    public enum RowStatus {
+        DUPLICATE,
+        INVALID,
+        FAILED,
+        SKIPPED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private long row;
+        private String passCode;
+        private RowStatus status;
+        private String message;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -16,4 +17,7 @@ public class LoginResponse {
     private String username;
     private List<String> roles;
     private String message;
+    private String token;
+    private String tokenType;
+    private Instant expiresAt;
 }
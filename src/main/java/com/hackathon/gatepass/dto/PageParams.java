@@ -0,0 +1,14 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.Data;
+
+// Query parameters of the paged pass lists
+@Data
+public class PageParams {
+
+    private String fields;
+    private String cursor;
+    private Integer limit;
+    private String sort = "createdAt";
+    private String direction = "asc";
+}
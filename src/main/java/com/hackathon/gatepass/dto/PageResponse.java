@@ -0,0 +1,22 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private List<T> items;
+    private Integer limit;
+    private String sort;
+    private String direction;
+    private String nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,34 @@
+package com.hackathon.gatepass.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PassEvent {
+
+    public enum Type {
+        CREATED,
+        IMPORTED,
+        ENTRY_VERIFIED,
+        GOODIES_GIVEN,
+        DELETED
+    }
+
+    private Type type;
+    private String eventId;
+    private String passId;
+    private String passCode;
+    private String teamName;
+    private String actor;
+    private Long count;
+    private Instant at;
+}
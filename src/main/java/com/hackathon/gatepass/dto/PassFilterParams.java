@@ -0,0 +1,14 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.Data;
+
+// Query parameters of /filter and /export
+@Data
+public class PassFilterParams {
+
+    private Boolean entryVerified;
+    private Boolean goodiesGiven;
+    private String verifiedBy;
+    private String goodiesGivenBy;
+    private String college;
+}
@@ -1,5 +1,6 @@
 package com.hackathon.gatepass.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,11 +10,16 @@ import java.time.Instant;
 
 @Data
 @Builder
+@JsonFilter(PassResponse.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PassResponse {
 
+    // Jackson filter that trims the response to the fields= parameter, see PassFieldSet
+    public static final String FILTER_ID = "passFields";
+
     private String id;
+    private String eventId;
     private String teamId;
     private String teamName;
     private String name;
@@ -30,6 +36,7 @@ public class PassResponse {
     private String unstopReportUrl;
     private String pptUrl;
     private String passCode;
+    private String signedPassCode;
     private Boolean entryVerified;
     private Boolean goodiesGiven;
     private String verifiedBy;
@@ -0,0 +1,25 @@
+package com.hackathon.gatepass.dto;
+
+import com.hackathon.gatepass.model.PassAction;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanActionRequest {
+
+    @NotBlank(message = "Pass code is required")
+    private String passCode;
+
+    @NotNull(message = "Action is required")
+    private PassAction action;
+
+    @NotBlank(message = "Verifier name is required")
+    private String verifiedBy;
+}
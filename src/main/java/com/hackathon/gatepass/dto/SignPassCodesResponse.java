@@ -0,0 +1,16 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignPassCodesResponse {
+
+    private String keyId;
+    private Long signed;
+}
@@ -0,0 +1,24 @@
+package com.hackathon.gatepass.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncPass {
+
+    private String id;
+    private String passCode;
+    private String signedPassCode;
+    private String teamName;
+    private String name;
+    private String college;
+    private Boolean entryVerified;
+    private Boolean goodiesGiven;
+}
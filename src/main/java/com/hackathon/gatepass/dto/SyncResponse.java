@@ -0,0 +1,28 @@
+package com.hackathon.gatepass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    @Builder.Default
+    private List<SyncPass> changes = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> deleted = new ArrayList<>();
+
+    private String nextToken;
+    private boolean hasMore;
+
+    // Set when the token is older than tombstone retention; the client must drop its replica and resync
+    private boolean resetRequired;
+}
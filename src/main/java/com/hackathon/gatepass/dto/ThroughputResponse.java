@@ -0,0 +1,49 @@
+package com.hackathon.gatepass.dto;
+
+import com.hackathon.gatepass.model.PassAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputResponse {
+
+    private PassAction action;
+    private Instant from;
+    private Instant to;
+    private Integer intervalMinutes;
+    private Long total;
+    private Double averagePerMinute;
+    private Bucket peakMinute;
+    private List<Bucket> series;
+    private List<VerifierThroughput> verifiers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private Instant start;
+        private Long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VerifierThroughput {
+        private String verifier;
+        private Long total;
+        private Long activeMinutes;
+        private Double averagePerActiveMinute;
+        private Bucket peakMinute;
+        private List<Bucket> series;
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackathon.gatepass.exception;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackathon.gatepass.exception;
+
+public class InvalidEventIdException extends RuntimeException {
+    public InvalidEventIdException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackathon.gatepass.exception;
+
+public class InvalidFieldSetException extends RuntimeException {
+    public InvalidFieldSetException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hackathon.gatepass.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hackathon.gatepass.model;
+
+import com.hackathon.gatepass.dto.PassResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Document(collection = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public static final Duration RETENTION = Duration.ofHours(24);
+
+    public enum State {
+        PENDING,
+        COMPLETED
+    }
+
+    // The Idempotency-Key header value
+    @Id
+    private String id;
+
+    // Action, target and verifier of the first request; a retry must match it
+    private String request;
+
+    private State state;
+
+    private PassResponse response;
+
+    // Outcome and message of a first request that was rejected, replayed as the same error
+    private String error;
+
+    private String message;
+
+    @Indexed(expireAfter = "24h")
+    @Field("created_at")
+    private Instant createdAt;
+
+    @Field("completed_at")
+    private Instant completedAt;
+}
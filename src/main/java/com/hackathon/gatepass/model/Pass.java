@@ -5,13 +5,36 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
 
 @Document(collection = "passes")
+// Every query is scoped to one event, so event_id leads each index; (event_id, pass_code) is also
+// the shard key should events outgrow one replica set. See PassEvents for the migration from global indexes.
+@CompoundIndexes({
+        @CompoundIndex(name = "event_pass_code", def = "{'event_id': 1, 'pass_code': 1}", unique = true),
+        @CompoundIndex(name = "event_id_id", def = "{'event_id': 1, '_id': 1}"),
+        // Also the college filter: a prefix match is a range, so college_key has to follow the sort keys
+        // for the index to keep serving created_at order
+        @CompoundIndex(name = "event_created_at_id_college_key",
+                def = "{'event_id': 1, 'created_at': 1, '_id': 1, 'college_key': 1}"),
+        @CompoundIndex(name = "event_updated_at_id", def = "{'event_id': 1, 'updated_at': 1, '_id': 1}"),
+        // Dashboard filter shapes: the filter's equality fields, then the default created_at paging order
+        @CompoundIndex(name = "event_entry_created_at_id",
+                def = "{'event_id': 1, 'entry_verified': 1, 'created_at': 1, '_id': 1}"),
+        @CompoundIndex(name = "event_entry_goodies_created_at_id",
+                def = "{'event_id': 1, 'entry_verified': 1, 'goodies_given': 1, 'created_at': 1, '_id': 1}"),
+        @CompoundIndex(name = "event_goodies_created_at_id",
+                def = "{'event_id': 1, 'goodies_given': 1, 'created_at': 1, '_id': 1}"),
+        @CompoundIndex(name = "event_verified_by_created_at_id",
+                def = "{'event_id': 1, 'verified_by': 1, 'created_at': 1, '_id': 1}"),
+        @CompoundIndex(name = "event_goodies_given_by_created_at_id",
+                def = "{'event_id': 1, 'goodies_given_by': 1, 'created_at': 1, '_id': 1}")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,6 +44,9 @@ public class Pass {
     @Id
     private String id;
 
+    @Field("event_id")
+    private String eventId;
+
     @Field("team_id")
     private String teamId;
 
@@ -51,16 +77,23 @@ public class Pass {
 
     private String college;
 
+    // Trimmed, lower-cased college for index-backed filtering, see PassSearchKeys
+    @Field("college_key")
+    private String collegeKey;
+
     @Field("unstop_report_url")
     private String unstopReportUrl;
 
     @Field("ppt_url")
     private String pptUrl;
 
-    @Indexed(unique = true)
     @Field("pass_code")
     private String passCode;
 
+    // pass_code with its signature, as printed on the pass; see PassCodeSigner
+    @Field("signed_pass_code")
+    private String signedPassCode;
+
     @Builder.Default
     @Field("entry_verified")
     private Boolean entryVerified = false;
@@ -81,7 +114,19 @@ public class Pass {
     @Field("goodies_given_at")
     private Instant goodiesGivenAt;
 
-    @Builder.Default
+    // Id of the batch item that set the flag, so a batch can tell its own writes from earlier ones
+    @Field("entry_op_id")
+    private String entryOpId;
+
+    @Field("goodies_op_id")
+    private String goodiesOpId;
+
+    // No default: one would also fill in "now" for documents read without the field, such as legacy or
+    // directly imported passes. Every code path that creates a pass sets it.
     @Field("created_at")
-    private Instant createdAt = Instant.now();
+    private Instant createdAt;
+
+    // Always written by the MongoDB server ($currentDate), never from the application clock
+    @Field("updated_at")
+    private Instant updatedAt;
 }
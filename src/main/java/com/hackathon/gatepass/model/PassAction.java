@@ -0,0 +1,24 @@
+package com.hackathon.gatepass.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum PassAction {
+
+    ENTRY("entry_verified", "verified_by", "entry_verified_at", "entry_op_id", "Entry already verified"),
+    GOODIES("goodies_given", "goodies_given_by", "goodies_given_at", "goodies_op_id", "Goodies already given");
+
+    private final String flagField;
+    private final String actorField;
+    private final String timestampField;
+    private final String opField;
+    private final String alreadyDoneMessage;
+
+    @JsonCreator
+    public static PassAction fromValue(String value) {
+        return value == null ? null : PassAction.valueOf(value.trim().toUpperCase());
+    }
+}
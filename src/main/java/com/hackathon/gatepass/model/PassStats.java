@@ -0,0 +1,55 @@
+package com.hackathon.gatepass.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@Document(collection = "pass_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassStats {
+
+    // One document per event, keyed by the event id
+    @Id
+    private String id;
+
+    @Builder.Default
+    @Field("total_passes")
+    private Long totalPasses = 0L;
+
+    @Builder.Default
+    @Field("entries_verified")
+    private Long entriesVerified = 0L;
+
+    @Builder.Default
+    @Field("goodies_given")
+    private Long goodiesGiven = 0L;
+
+    // Map keys are escaped by PassStatsService since college and staff names may contain '.' or '$'
+    @Builder.Default
+    private Map<String, Long> colleges = new HashMap<>();
+
+    @Builder.Default
+    @Field("entries_verified_by")
+    private Map<String, Long> entriesVerifiedBy = new HashMap<>();
+
+    @Builder.Default
+    @Field("goodies_given_by")
+    private Map<String, Long> goodiesGivenBy = new HashMap<>();
+
+    @Field("rebuilt_at")
+    private Instant rebuiltAt;
+
+    // Incremented with every counter update and rebuild; see PassStatsService.currentVersion
+    private Long version;
+}
@@ -0,0 +1,42 @@
+package com.hackathon.gatepass.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+// Entries or goodies one verifier handled in one minute. Throughput queries read a range of these
+// through the unique index instead of scanning passes.
+@Document(collection = "pass_throughput")
+@CompoundIndex(name = "event_action_minute_actor", def = "{'event_id': 1, 'action': 1, 'minute': 1, 'actor': 1}",
+        unique = true)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassThroughput {
+
+    @Id
+    private String id;
+
+    @Field("event_id")
+    private String eventId;
+
+    private PassAction action;
+
+    // Start of the minute, UTC
+    private Instant minute;
+
+    private String actor;
+
+    private Long count;
+
+    // Bumped by every write, so a rebuild only overwrites a bucket no scan has changed since it was read
+    private Long version;
+}
@@ -0,0 +1,38 @@
+package com.hackathon.gatepass.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Document(collection = "pass_tombstones")
+@CompoundIndex(name = "event_deleted_at", def = "{'event_id': 1, 'deleted_at': 1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassTombstone {
+
+    public static final Duration RETENTION = Duration.ofDays(7);
+
+    @Id
+    private String id;
+
+    @Field("event_id")
+    private String eventId;
+
+    @Field("pass_code")
+    private String passCode;
+
+    @Indexed(expireAfter = "7d")
+    @Field("deleted_at")
+    private Instant deletedAt;
+}
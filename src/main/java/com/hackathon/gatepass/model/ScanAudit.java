@@ -0,0 +1,52 @@
+package com.hackathon.gatepass.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+@Document(collection = "scan_audit")
+@CompoundIndex(name = "event_pass_code_at", def = "{'event_id': 1, 'pass_code': 1, 'at': -1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanAudit {
+
+    @Id
+    private String id;
+
+    private String operation;
+
+    @Field("event_id")
+    private String eventId;
+
+    @Field("pass_code")
+    private String passCode;
+
+    @Field("pass_id")
+    private String passId;
+
+    private PassAction action;
+
+    @Field("verified_by")
+    private String verifiedBy;
+
+    private String source;
+
+    private String outcome;
+
+    // Batch items carry the device scan time; latency is only measured for online requests
+    @Indexed
+    private Instant at;
+
+    @Field("latency_micros")
+    private Long latencyMicros;
+}
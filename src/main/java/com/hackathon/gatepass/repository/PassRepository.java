@@ -9,7 +9,7 @@ import java.util.Optional;
 @Repository
 public interface PassRepository extends MongoRepository<Pass, String> {
 
-    Optional<Pass> findByPassCode(String passCode);
+    Optional<Pass> findByEventIdAndPassCode(String eventId, String passCode);
 
-    boolean existsByPassCode(String passCode);
+    boolean existsByEventIdAndPassCode(String eventId, String passCode);
 }
@@ -0,0 +1,64 @@
+package com.hackathon.gatepass.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Admission {
+
+    public enum Outcome {
+        ADMITTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    private static final Runnable NO_PERMIT = () -> { };
+
+    private final Outcome outcome;
+    private final long retryAfterSeconds;
+    @Getter(AccessLevel.NONE)
+    private final Runnable onRelease;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    static Admission admitted(Runnable onRelease) {
+        return new Admission(Outcome.ADMITTED, 0, onRelease);
+    }
+
+    static Admission unlimited() {
+        return new Admission(Outcome.ADMITTED, 0, NO_PERMIT);
+    }
+
+    static Admission rateLimited(long retryAfterSeconds) {
+        return new Admission(Outcome.RATE_LIMITED, retryAfterSeconds, NO_PERMIT);
+    }
+
+    static Admission overloaded(long retryAfterSeconds) {
+        return new Admission(Outcome.OVERLOADED, retryAfterSeconds, NO_PERMIT);
+    }
+
+    public boolean isAdmitted() {
+        return outcome == Outcome.ADMITTED;
+    }
+
+    public HttpStatus getHttpStatus() {
+        return outcome == Outcome.RATE_LIMITED ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    public String getMessage() {
+        return outcome == Outcome.RATE_LIMITED
+                ? "Too many requests from this device, retry after " + retryAfterSeconds + "s"
+                : "Server is at capacity, retry after " + retryAfterSeconds + "s";
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            onRelease.run();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.hackathon.gatepass.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.ConnectionString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Two gates in front of the API: a token bucket per device (or address) so one runaway scanner
+// cannot starve the others, plus one per user so a shared login cannot multiply its allowance
+// by inventing device ids, and a concurrency limit sized from the Mongo connection pool
+// so requests are turned away in microseconds instead of queueing for a connection. Dashboard
+// reads get a fixed share of that limit and never wait; scans may wait briefly for a permit.
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    public static final String DEVICE_HEADER = "X-Device-Id";
+
+    private static final String EVENTS_PREFIX = "/api/events/";
+
+    // Driver default when the connection string does not set maxPoolSize
+    private static final int DEFAULT_MONGO_POOL_SIZE = 100;
+    private static final long OVERLOADED_RETRY_AFTER_SECONDS = 1;
+
+    public enum Priority {
+        SCAN,
+        DEFAULT,
+        BACKGROUND,
+        EXEMPT
+    }
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final Semaphore inFlight;
+    private final Semaphore background;
+    private final Duration scanQueueTimeout;
+    private final double deviceRate;
+    private final double deviceBurst;
+    private final double userRate;
+    private final double userBurst;
+    private final Cache<String, TokenBucket> buckets;
+    private final Meter.MeterProvider<Counter> requests;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${spring.data.mongodb.uri}") String mongoUri,
+                            @Value("${admission.enabled}") boolean enabled,
+                            @Value("${admission.max-concurrent}") int maxConcurrent,
+                            @Value("${admission.background-share}") double backgroundShare,
+                            @Value("${admission.scan-queue-timeout}") Duration scanQueueTimeout,
+                            @Value("${admission.device-rate}") double deviceRate,
+                            @Value("${admission.device-burst}") double deviceBurst,
+                            @Value("${admission.user-rate}") double userRate,
+                            @Value("${admission.user-burst}") double userBurst) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : mongoPoolSize(mongoUri);
+        this.inFlight = new Semaphore(this.maxConcurrent);
+        this.background = new Semaphore(Math.max(1, (int) (this.maxConcurrent * backgroundShare)));
+        this.scanQueueTimeout = scanQueueTimeout;
+        this.deviceRate = deviceRate;
+        this.deviceBurst = deviceBurst;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.requests = Counter.builder("gatepass.admission.requests")
+                .description("API requests by priority and admission outcome")
+                .withRegistry(meterRegistry);
+        Gauge.builder("gatepass.admission.in_flight", inFlight,
+                        permits -> this.maxConcurrent - permits.availablePermits())
+                .description("Admitted requests currently holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("gatepass.admission.queue", inFlight, Semaphore::getQueueLength)
+                .description("Scan requests waiting for a permit")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Admission control: {} concurrent requests, {} for dashboard reads, {} req/s per device, "
+                            + "{} req/s per user",
+                    this.maxConcurrent, background.availablePermits(), deviceRate, userRate);
+        }
+    }
+
+    private static int mongoPoolSize(String mongoUri) {
+        Integer size = new ConnectionString(mongoUri).getMaxConnectionPoolSize();
+        return size != null && size > 0 ? size : DEFAULT_MONGO_POOL_SIZE;
+    }
+
+    public static Priority classify(String method, String requestPath) {
+        String path = passesPath(requestPath);
+        if (!path.startsWith("/api/") || path.equals("/api/passes/stats/stream")) {
+            return Priority.EXEMPT;
+        }
+        if (path.equals("/api/passes/scan")
+                || ("POST".equals(method) && (path.endsWith("/verify-entry") || path.endsWith("/give-goodies")))) {
+            return Priority.SCAN;
+        }
+        if ("GET".equals(method) && (path.equals("/api/passes") || path.equals("/api/passes/filter")
+                || path.equals("/api/passes/export") || path.equals("/api/passes/stats")
+                || path.equals("/api/passes/throughput"))) {
+            return Priority.BACKGROUND;
+        }
+        return Priority.DEFAULT;
+    }
+
+    // An event's passes are classified like the default event's: /api/events/{id}/passes/... as /api/passes/...
+    private static String passesPath(String path) {
+        if (!path.startsWith(EVENTS_PREFIX)) {
+            return path;
+        }
+        int slash = path.indexOf('/', EVENTS_PREFIX.length());
+        return slash < 0 ? path : "/api" + path.substring(slash);
+    }
+
+    // Gate staff often share an account, so an authenticated caller's device gets its own bucket under
+    // the user's. The device id alone is only trusted to key anonymous callers.
+    public static ClientKey clientKey(String deviceId, Authentication authentication, String remoteAddress) {
+        String device = deviceId != null && !deviceId.isBlank() ? "device:" + deviceId : "ip:" + remoteAddress;
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            String user = "user:" + authentication.getName();
+            return new ClientKey(user + "/" + device, user);
+        }
+        return new ClientKey(device, null);
+    }
+
+    // Blocking callers (servlet threads) let scans wait up to scan-queue-timeout; the event loop never waits
+    public Admission admit(Priority priority, ClientKey clientKey, boolean mayWait) {
+        if (!enabled || priority == Priority.EXEMPT) {
+            return Admission.unlimited();
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(clientKey.getDevice(), key -> new TokenBucket(deviceRate, deviceBurst))
+                .tryConsume(now);
+        if (waitNanos == 0 && clientKey.getUser() != null) {
+            waitNanos = buckets.get(clientKey.getUser(), key -> new TokenBucket(userRate, userBurst))
+                    .tryConsume(now);
+        }
+        if (waitNanos > 0) {
+            long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            return reject(priority, Admission.rateLimited(retryAfterSeconds));
+        }
+
+        if (priority == Priority.BACKGROUND && !background.tryAcquire()) {
+            return reject(priority, Admission.overloaded(OVERLOADED_RETRY_AFTER_SECONDS));
+        }
+        if (!acquire(priority, mayWait)) {
+            if (priority == Priority.BACKGROUND) {
+                background.release();
+            }
+            return reject(priority, Admission.overloaded(OVERLOADED_RETRY_AFTER_SECONDS));
+        }
+
+        requests.withTags("priority", tag(priority), "outcome", "admitted").increment();
+        return Admission.admitted(() -> {
+            inFlight.release();
+            if (priority == Priority.BACKGROUND) {
+                background.release();
+            }
+        });
+    }
+
+    private boolean acquire(Priority priority, boolean mayWait) {
+        if (priority != Priority.SCAN || !mayWait || scanQueueTimeout.isZero()) {
+            return inFlight.tryAcquire();
+        }
+        try {
+            return inFlight.tryAcquire(scanQueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Admission reject(Priority priority, Admission admission) {
+        requests.withTags("priority", tag(priority), "outcome", tag(admission.getOutcome())).increment();
+        return admission;
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class ClientKey {
+        // user:<name>/device:<id> (or /ip:<address>) for authenticated callers, device:<id> or ip:<address> otherwise
+        private final String device;
+        // user:<name>, shared by all of the user's devices; null for anonymous callers
+        private final String user;
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double ratePerSecond, double capacity) {
+            this.capacity = capacity;
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+        synchronized long tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
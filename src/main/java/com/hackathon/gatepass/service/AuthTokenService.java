@@ -0,0 +1,163 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Stateless bearer tokens: base64url(JSON claims) + "." + base64url(HMAC-SHA256). Verifying one is a
+// single HMAC over a few hundred bytes, no password hashing and no user lookup.
+@Slf4j
+@Service
+public class AuthTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    // Tokens carry roles, so a user change revokes everything issued to that user before it
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile long allRevokedBefore;
+
+    public AuthTokenService(ObjectMapper objectMapper,
+                            @Value("${auth.token.secret}") String secret,
+                            @Value("${auth.token.ttl}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.key = new SecretKeySpec(resolveSecret(secret), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public IssuedToken issue(String username, Collection<? extends GrantedAuthority> authorities) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        TokenClaims claims = TokenClaims.builder()
+                .sub(username)
+                .roles(authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()))
+                .iat(now.toEpochMilli())
+                .exp(expiresAt.toEpochMilli())
+                .build();
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not serialize token claims", ex);
+        }
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator == token.length() - 1) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            TokenClaims claims = objectMapper.readValue(DECODER.decode(payload), TokenClaims.class);
+            long now = System.currentTimeMillis();
+            if (claims.getSub() == null || claims.getExp() <= now || claims.getIat() < allRevokedBefore
+                    || claims.getIat() < revokedBefore.getOrDefault(claims.getSub(), 0L)) {
+                return Optional.empty();
+            }
+            List<GrantedAuthority> authorities = claims.getRoles() == null ? List.of() : claims.getRoles().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            return Optional.of(new VerifiedToken(claims.getSub(), authorities));
+        } catch (IllegalArgumentException | IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public void revoke(String username) {
+        revokedBefore.put(username, System.currentTimeMillis());
+    }
+
+    public void revokeAll() {
+        revokedBefore.clear();
+        allRevokedBefore = System.currentTimeMillis();
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart "
+                    + "or be accepted by other instances");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            throw new IllegalStateException("auth.token.secret must be at least 32 bytes");
+        }
+        return bytes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class TokenClaims {
+        private String sub;
+        private List<String> roles;
+        private long iat;
+        private long exp;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class IssuedToken {
+        private String token;
+        private Instant expiresAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class VerifiedToken {
+        private String username;
+        private List<GrantedAuthority> authorities;
+    }
+}
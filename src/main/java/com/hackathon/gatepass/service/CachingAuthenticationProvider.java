@@ -0,0 +1,114 @@
+package com.hackathon.gatepass.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.gatepass.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+// HTTP Basic sends the password on every request. After one successful BCrypt check the user and an
+// HMAC of the password (keyed per process, never persisted) are cached, so repeat requests cost one
+// HMAC instead of a BCrypt round plus a user lookup. Wrong passwords always go to the delegate.
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final DaoAuthenticationProvider delegate;
+    private final Cache<String, CachedCredential> credentials;
+    private final ThreadLocal<Mac> macs;
+
+    public CachingAuthenticationProvider(UserRepository userRepository,
+                                         PasswordEncoder passwordEncoder,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${auth.credential-cache.max-size}") long maxSize,
+                                         @Value("${auth.credential-cache.ttl}") Duration ttl) {
+        this.delegate = new DaoAuthenticationProvider(new CustomUserDetailsService(userRepository));
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.credentials = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, "auth-credentials");
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> newMac(keySpec));
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object password = authentication.getCredentials();
+        if (username == null || password == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        byte[] digest = digest(username, password.toString());
+        CachedCredential cached = credentials.getIfPresent(username);
+        if (cached != null && MessageDigest.isEqual(cached.digest, digest)) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.user, null, cached.user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails user) {
+            credentials.put(username, new CachedCredential(user, digest));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    public void evict(String username) {
+        credentials.invalidate(username);
+    }
+
+    public void evictAll() {
+        credentials.invalidateAll();
+    }
+
+    private byte[] digest(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    private record CachedCredential(UserDetails user, byte[] digest) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackathon.gatepass.service;
+
+// How text travels through a CSV export and back in through the CSV import. Registration data is
+// attendee-supplied, so a cell that spreadsheet apps would run as a formula (=HYPERLINK(...)) is written
+// with a leading ' and shown as text. A value that already starts with ' gets one too, so on the way in
+// a leading ' is always the escape and exactly one is removed: '=x exports as ''=x and imports as '=x.
+public final class CsvCells {
+
+    private static final char ESCAPE = '\'';
+    // Spreadsheet apps evaluate a CSV cell starting with one of these as a formula
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private CsvCells() {
+    }
+
+    public static String write(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        return value instanceof String && needsEscape(text) ? ESCAPE + text : text;
+    }
+
+    public static String read(String cell) {
+        return cell != null && !cell.isEmpty() && cell.charAt(0) == ESCAPE ? cell.substring(1) : cell;
+    }
+
+    private static boolean needsEscape(String text) {
+        return !text.isEmpty() && (text.charAt(0) == ESCAPE || FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0);
+    }
+}
@@ -8,12 +8,12 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.stream.Collectors;
 
-@Service
+// Not a bean: it is only used by the DaoAuthenticationProvider that CachingAuthenticationProvider
+// creates, so Spring Security has no UserDetailsService to wire into its global AuthenticationManager
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
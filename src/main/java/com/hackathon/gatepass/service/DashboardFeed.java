@@ -0,0 +1,240 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.DashboardUpdate;
+import com.hackathon.gatepass.dto.PassEvent;
+import com.hackathon.gatepass.dto.StatsResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write paths only enqueue; a single scheduled flush coalesces the window and emits it to the
+// event's sink, so stats are read once per window no matter how many dashboards are connected.
+// SSE dashboards drain the sink on a bounded send pool: a slow one skips windows and is dropped
+// once a send outlasts send-timeout, so it never holds up the flush or the other dashboards.
+// Each event has its own channel, so a dashboard only sees its event's scans and stats.
+@Slf4j
+@Component
+public class DashboardFeed {
+
+    private final PassStatsService statsService;
+    // One per event a dashboard is watching, dropped by the next flush after the last one leaves
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final int maxPendingEvents;
+    private final long emitterTimeoutMillis;
+    private final Duration statsRefreshInterval;
+    private final Duration sendTimeout;
+    private final Scheduler sendScheduler;
+
+    public DashboardFeed(PassStatsService statsService,
+                         @Value("${dashboard-feed.max-pending-events}") int maxPendingEvents,
+                         @Value("${dashboard-feed.emitter-timeout}") Duration emitterTimeout,
+                         @Value("${dashboard-feed.stats-refresh-interval}") Duration statsRefreshInterval,
+                         @Value("${dashboard-feed.send-threads}") int sendThreads,
+                         @Value("${dashboard-feed.send-timeout}") Duration sendTimeout) {
+        this.statsService = statsService;
+        this.maxPendingEvents = maxPendingEvents;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.statsRefreshInterval = statsRefreshInterval;
+        this.sendTimeout = sendTimeout;
+        this.sendScheduler = Schedulers.newBoundedElastic(sendThreads,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "dashboard-send");
+    }
+
+    @PreDestroy
+    public void stop() {
+        sendScheduler.dispose();
+    }
+
+    public SseEmitter subscribe(String eventId) {
+        Sender sender = new Sender(new SseEmitter(emitterTimeoutMillis));
+        // Latest-only: while a send is in flight, newer windows replace each other instead of queueing
+        Disposable delivery = stream(eventId)
+                .onBackpressureLatest()
+                .concatMap(update -> Mono.fromRunnable(() -> sender.send(update))
+                        .subscribeOn(sendScheduler)
+                        .timeout(sendTimeout), 1)
+                .subscribe(sent -> { }, sender::fail, sender.emitter::complete);
+        sender.emitter.onCompletion(delivery::dispose);
+        sender.emitter.onTimeout(delivery::dispose);
+        sender.emitter.onError(ex -> delivery.dispose());
+        return sender.emitter;
+    }
+
+    public Flux<DashboardUpdate> stream(String eventId) {
+        return Flux.defer(() -> {
+            Channel channel = watch(eventId);
+            Mono<DashboardUpdate> snapshot = Mono.fromCallable(() -> snapshot(eventId, channel))
+                    .subscribeOn(Schedulers.boundedElastic());
+            return channel.updates.asFlux()
+                    .startWith(snapshot)
+                    .take(Duration.ofMillis(emitterTimeoutMillis))
+                    .doFinally(signal -> channel.watchers.decrementAndGet());
+        });
+    }
+
+    // Counted inside compute, so flush cannot drop a channel between its lookup and its first watcher
+    private Channel watch(String eventId) {
+        return channels.compute(eventId, (id, existing) -> {
+            Channel channel = existing == null ? new Channel() : existing;
+            channel.watchers.incrementAndGet();
+            return channel;
+        });
+    }
+
+    private DashboardUpdate snapshot(String eventId, Channel channel) {
+        DashboardUpdate snapshot = DashboardUpdate.builder()
+                .windowEnd(Instant.now())
+                .events(List.of())
+                .stats(statsService.getStats(eventId))
+                .build();
+        channel.lastStatsSent = snapshot.getWindowEnd();
+        return snapshot;
+    }
+
+    public void publish(PassEvent event) {
+        Channel channel = channels.get(event.getEventId());
+        if (channel == null || !channel.hasSubscribers()) {
+            return;
+        }
+        if (channel.pendingSize.incrementAndGet() > maxPendingEvents) {
+            channel.pendingSize.decrementAndGet();
+            channel.dropped.incrementAndGet();
+            return;
+        }
+        channel.pending.offer(event);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard-feed.flush-interval}")
+    public void flush() {
+        channels.forEach(this::flush);
+    }
+
+    private void flush(String eventId, Channel channel) {
+        if (!channel.hasSubscribers()) {
+            channels.computeIfPresent(eventId, (id, idle) -> idle.hasSubscribers() ? idle : null);
+            return;
+        }
+
+        List<PassEvent> events = new ArrayList<>();
+        PassEvent event;
+        while ((event = channel.pending.poll()) != null) {
+            channel.pendingSize.decrementAndGet();
+            events.add(event);
+        }
+
+        Instant now = Instant.now();
+        // Other instances' writes never reach this queue, so stats are also re-read periodically
+        boolean refreshStats = now.isAfter(channel.lastStatsSent.plus(statsRefreshInterval));
+        if (events.isEmpty() && !refreshStats) {
+            return;
+        }
+
+        StatsResponse stats = statsService.getStats(eventId);
+        channel.lastStatsSent = now;
+
+        DashboardUpdate update = DashboardUpdate.builder()
+                .windowEnd(now)
+                .passesCreated(countCreated(events))
+                .entriesVerified(count(events, PassEvent.Type.ENTRY_VERIFIED))
+                .goodiesGiven(count(events, PassEvent.Type.GOODIES_GIVEN))
+                .passesDeleted(count(events, PassEvent.Type.DELETED))
+                .eventsDropped(channel.dropped.getAndSet(0))
+                .events(events)
+                .stats(stats)
+                .build();
+
+        channel.updates.tryEmitNext(update);
+    }
+
+    private long countCreated(List<PassEvent> events) {
+        return events.stream()
+                .mapToLong(e -> e.getType() == PassEvent.Type.CREATED ? 1
+                        : e.getType() == PassEvent.Type.IMPORTED && e.getCount() != null ? e.getCount() : 0)
+                .sum();
+    }
+
+    private long count(List<PassEvent> events, PassEvent.Type type) {
+        return events.stream().filter(e -> e.getType() == type).count();
+    }
+
+    // The emitter holds its write lock for the whole blocking send, so completing it while a send is
+    // stuck would block the caller too. A timed out send is failed by the send thread once the write
+    // returns, which the container's socket write timeout bounds; the emitter is then completed with
+    // the error so the connection is closed rather than reused.
+    private static final class Sender {
+
+        private static final int IDLE = 0;
+        private static final int SENDING = 1;
+        private static final int FAILED = 2;
+
+        private final SseEmitter emitter;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private volatile Throwable failure;
+
+        Sender(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(DashboardUpdate update) {
+            if (!state.compareAndSet(IDLE, SENDING)) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("update").data(update));
+            } catch (IOException | IllegalStateException ex) {
+                failure = ex;
+                state.set(FAILED);
+                emitter.completeWithError(ex);
+                return;
+            }
+            if (!state.compareAndSet(SENDING, IDLE)) {
+                emitter.completeWithError(failure);
+            }
+        }
+
+        // Runs on the timer that fired the send timeout, so it must never wait for the emitter's lock
+        void fail(Throwable ex) {
+            failure = ex;
+            if (state.getAndSet(FAILED) == IDLE) {
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+
+    private static final class Channel {
+
+        // A dashboard that is not keeping up skips windows rather than buffering them
+        private final Sinks.Many<DashboardUpdate> updates = Sinks.many().multicast().directBestEffort();
+        private final Queue<PassEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingSize = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        // Counted from subscription, while the sink itself only sees a dashboard once its snapshot is sent
+        private final AtomicInteger watchers = new AtomicInteger();
+        private volatile Instant lastStatsSent = Instant.EPOCH;
+
+        boolean hasSubscribers() {
+            return watchers.get() > 0;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.hackathon.gatepass.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.exception.IdempotentRequestInProgressException;
+import com.hackathon.gatepass.exception.InvalidIdempotencyKeyException;
+import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import com.hackathon.gatepass.model.IdempotencyRecord;
+import com.hackathon.gatepass.model.PassAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+// The first request with a key reserves it with an insert on _id, so exactly one node runs the
+// transition; its result is then stored on the same document and replayed to every retry.
+// Completion only lands on the reservation it was made under: if the reservation was taken over
+// meanwhile, the request replays whatever the new owner stored instead of overwriting it.
+// Completed results never change, so each node also keeps them in memory and retries that land
+// on the same node skip MongoDB entirely.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final Duration pendingTimeout;
+    private final Meter.MeterProvider<Counter> requests;
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.cache-max-size}") long cacheMaxSize,
+                              @Value("${idempotency.pending-timeout}") Duration pendingTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(IdempotencyRecord.RETENTION)
+                .build();
+        this.pendingTimeout = pendingTimeout;
+        this.requests = Counter.builder("gatepass.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by how they were served")
+                .withRegistry(meterRegistry);
+    }
+
+    // The event is part of the request, so a key reused at another event is a mismatch, not a replay
+    public static String request(String eventId, PassAction action, String target, String verifiedBy) {
+        return action + " " + eventId + "/" + target + " by " + verifiedBy;
+    }
+
+    public PassResponse execute(String key, String request, Supplier<PassResponse> call) {
+        if (key == null || key.isBlank()) {
+            return call.get();
+        }
+        validate(key);
+        IdempotencyRecord cached = cached(key);
+        if (cached != null) {
+            return replay(cached, request);
+        }
+        Instant reservedAt = Instant.now();
+        if (!reserve(key, request, reservedAt)) {
+            IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (existing == null) {
+                throw inProgress();
+            }
+            if (!canTakeOver(existing, request)
+                    || mongoTemplate.updateFirst(takeoverQuery(existing), takeoverUpdate(reservedAt),
+                    IdempotencyRecord.class).getModifiedCount() == 0) {
+                return replay(existing, request);
+            }
+        }
+
+        countFirst();
+        PassResponse response;
+        try {
+            response = call.get();
+        } catch (PassNotFoundException | PassAlreadyVerifiedException ex) {
+            IdempotencyRecord stored = store(completion(key, request, reservedAt, null, ex));
+            if (stored != null) {
+                return replay(stored, request);
+            }
+            throw ex;
+        } catch (RuntimeException ex) {
+            release(key, reservedAt);
+            throw ex;
+        }
+        IdempotencyRecord stored = store(completion(key, request, reservedAt, response, null));
+        return stored != null ? replay(stored, request) : response;
+    }
+
+    private boolean reserve(String key, String request, Instant reservedAt) {
+        try {
+            mongoTemplate.insert(pending(key, request, reservedAt));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    // Returns what another owner of the key stored when this reservation was taken over, null otherwise
+    private IdempotencyRecord store(IdempotencyRecord record) {
+        try {
+            if (mongoTemplate.updateFirst(reservationQuery(record.getId(), record.getCreatedAt()),
+                    completionUpdate(record), IdempotencyRecord.class).getModifiedCount() > 0) {
+                remember(record);
+                return null;
+            }
+            return mongoTemplate.findById(record.getId(), IdempotencyRecord.class);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to store result for Idempotency-Key {}: {}", record.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    // Unexpected failures leave nothing to replay, so the key is freed for the retry
+    private void release(String key, Instant reservedAt) {
+        try {
+            mongoTemplate.remove(reservationQuery(key, reservedAt), IdempotencyRecord.class);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to release Idempotency-Key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    void validate(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    IdempotencyRecord cached(String key) {
+        return completed.getIfPresent(key);
+    }
+
+    void remember(IdempotencyRecord record) {
+        completed.put(record.getId(), record);
+    }
+
+    void countFirst() {
+        requests.withTag("result", "first").increment();
+    }
+
+    IdempotencyRecord pending(String key, String request, Instant reservedAt) {
+        return IdempotencyRecord.builder()
+                .id(key)
+                .request(request)
+                .state(IdempotencyRecord.State.PENDING)
+                .createdAt(reservedAt)
+                .build();
+    }
+
+    // A reservation whose node died mid-request would otherwise block the key until it expires
+    boolean canTakeOver(IdempotencyRecord existing, String request) {
+        return existing.getState() == IdempotencyRecord.State.PENDING
+                && request.equals(existing.getRequest())
+                && existing.getCreatedAt().isBefore(Instant.now().minus(pendingTimeout));
+    }
+
+    Query takeoverQuery(IdempotencyRecord existing) {
+        return reservationQuery(existing.getId(), existing.getCreatedAt());
+    }
+
+    Update takeoverUpdate(Instant reservedAt) {
+        return new Update().set("created_at", reservedAt);
+    }
+
+    // Matches the reservation only while it is still pending under the same owner
+    Query reservationQuery(String key, Instant reservedAt) {
+        return Query.query(Criteria.where("_id").is(key)
+                .and("state").is(IdempotencyRecord.State.PENDING)
+                .and("created_at").is(reservedAt));
+    }
+
+    IdempotencyRecord completion(String key, String request, Instant reservedAt, PassResponse response,
+                                 RuntimeException error) {
+        return IdempotencyRecord.builder()
+                .id(key)
+                .request(request)
+                .state(IdempotencyRecord.State.COMPLETED)
+                .response(response)
+                .error(error != null ? PassMetrics.outcomeOf(error) : null)
+                .message(error != null ? error.getMessage() : null)
+                .createdAt(reservedAt)
+                .completedAt(Instant.now())
+                .build();
+    }
+
+    Update completionUpdate(IdempotencyRecord record) {
+        return new Update()
+                .set("state", record.getState())
+                .set("response", record.getResponse())
+                .set("error", record.getError())
+                .set("message", record.getMessage())
+                .set("completed_at", record.getCompletedAt());
+    }
+
+    PassResponse replay(IdempotencyRecord record, String request) {
+        if (!request.equals(record.getRequest())) {
+            requests.withTag("result", "mismatch").increment();
+            throw new InvalidIdempotencyKeyException(HEADER + " was already used for a different request");
+        }
+        if (record.getState() != IdempotencyRecord.State.COMPLETED) {
+            throw inProgress();
+        }
+        requests.withTag("result", "replayed").increment();
+        remember(record);
+        return result(record);
+    }
+
+    // The stored response, or the stored rejection rebuilt as the same exception
+    PassResponse result(IdempotencyRecord record) {
+        if (record.getError() == null) {
+            return record.getResponse();
+        }
+        if (PassMetrics.OUTCOME_NOT_FOUND.equals(record.getError())) {
+            throw new PassNotFoundException(record.getMessage());
+        }
+        throw new PassAlreadyVerifiedException(record.getMessage());
+    }
+
+    IdempotentRequestInProgressException inProgress() {
+        requests.withTag("result", "in_progress").increment();
+        return new IdempotentRequestInProgressException(
+                "A request with this " + HEADER + " is still being processed");
+    }
+}
@@ -0,0 +1,71 @@
+package com.hackathon.gatepass.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.gatepass.model.Pass;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class PassCache {
+
+    // Pass codes are only unique within an event, so entries are keyed by event and code
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Cache<String, Pass> byCode;
+
+    public PassCache(MeterRegistry meterRegistry,
+                     @Value("${pass-cache.max-size}") long maxSize,
+                     @Value("${pass-cache.ttl}") Duration ttl) {
+        this.byCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byCode, "passes");
+    }
+
+    public Optional<Pass> getByCode(String eventId, String passCode, Function<String, Optional<Pass>> loader) {
+        return Optional.ofNullable(byCode.get(key(eventId, passCode), key -> loader.apply(passCode).orElse(null)));
+    }
+
+    public Optional<Pass> getIfPresent(String eventId, String passCode) {
+        return Optional.ofNullable(byCode.getIfPresent(key(eventId, passCode)));
+    }
+
+    public void put(Pass pass) {
+        if (pass != null && pass.getPassCode() != null) {
+            byCode.put(key(pass.getEventId(), pass.getPassCode()), pass);
+        }
+    }
+
+    public void refreshIfPresent(Pass pass) {
+        if (pass != null && pass.getPassCode() != null) {
+            byCode.asMap().computeIfPresent(key(pass.getEventId(), pass.getPassCode()), (key, cached) -> pass);
+        }
+    }
+
+    public void evictByCode(String eventId, String passCode) {
+        if (passCode != null) {
+            byCode.invalidate(key(eventId, passCode));
+        }
+    }
+
+    // Deletes from other nodes only carry the document id; deletes are rare admin
+    // operations, so a scan of the cache is cheaper than maintaining a second index.
+    public void evictById(String id) {
+        if (id != null) {
+            byCode.asMap().values().removeIf(pass -> id.equals(pass.getId()));
+        }
+    }
+
+    private static String key(String eventId, String passCode) {
+        return eventId + KEY_SEPARATOR + passCode;
+    }
+}
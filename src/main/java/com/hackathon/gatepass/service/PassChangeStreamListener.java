@@ -0,0 +1,78 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "pass-cache.change-stream.enabled", havingValue = "true")
+public class PassChangeStreamListener {
+
+    private final MongoTemplate mongoTemplate;
+    private final MessageListenerContainer messageListenerContainer;
+    private final PassCache passCache;
+
+    @PostConstruct
+    public void subscribe() {
+        if (!changeStreamsSupported()) {
+            log.warn("MongoDB deployment is not a replica set; pass cache relies on TTL expiry only");
+            return;
+        }
+
+        ChangeStreamRequest<Pass> request = ChangeStreamRequest.builder(this::onChange)
+                .collection(mongoTemplate.getCollectionName(Pass.class))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build();
+        messageListenerContainer.register(request, Pass.class,
+                ex -> log.warn("Pass change stream error: {}", ex.getMessage()));
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Pass> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        if (raw == null) {
+            return;
+        }
+
+        OperationType operation = raw.getOperationType();
+        if (operation == OperationType.DELETE) {
+            passCache.evictById(documentId(raw.getDocumentKey()));
+        } else if (message.getBody() != null) {
+            passCache.refreshIfPresent(message.getBody());
+        } else {
+            passCache.evictById(documentId(raw.getDocumentKey()));
+        }
+    }
+
+    private String documentId(BsonDocument documentKey) {
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private boolean changeStreamsSupported() {
+        try {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (RuntimeException ex) {
+            log.warn("Could not determine MongoDB topology: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
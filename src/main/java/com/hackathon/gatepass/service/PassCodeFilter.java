@@ -0,0 +1,274 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+// Bloom filter of every event id and pass code pair, so scans of codes that were never issued (misreads, other events'
+// passes) and duplicate checks for new codes are answered without a query. It only says "absent"
+// when it is known to be complete, which requires that this instance is the only one creating passes.
+// A change stream cannot stand in for that: an insert on another instance reaches it only after a
+// delay, and a scan of that code arriving in between would be turned away. With several instances
+// the filter is not built and every lookup goes to MongoDB as before.
+@Slf4j
+@Component
+public class PassCodeFilter {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long expectedPasses;
+    private final double falsePositiveRate;
+    private final boolean singleInstance;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Counter falsePositives;
+    private volatile BloomFilter current;
+    // Codes added while a rebuild streams the collection go into both filters
+    private volatile BloomFilter rebuilding;
+    private final AtomicLong removedSinceBuild = new AtomicLong();
+
+    public PassCodeFilter(MongoTemplate mongoTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${pass-code-filter.enabled}") boolean enabled,
+                          @Value("${pass-code-filter.expected-passes}") long expectedPasses,
+                          @Value("${pass-code-filter.false-positive-rate}") double falsePositiveRate,
+                          @Value("${pass-code-filter.single-instance}") boolean singleInstance) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.expectedPasses = expectedPasses;
+        this.falsePositiveRate = falsePositiveRate;
+        this.singleInstance = singleInstance;
+        this.absent = checks(meterRegistry, "absent");
+        this.maybePresent = checks(meterRegistry, "maybe_present");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        Gauge.builder("gatepass.pass_code_filter.entries", this, filter -> filter.stat(BloomFilter::entries))
+                .description("Pass codes added to the filter since it was built")
+                .register(meterRegistry);
+        Gauge.builder("gatepass.pass_code_filter.capacity", this, filter -> filter.stat(BloomFilter::capacity))
+                .description("Pass codes the filter was sized for")
+                .register(meterRegistry);
+        Gauge.builder("gatepass.pass_code_filter.fill_ratio", this, filter -> filter.stat(BloomFilter::fillRatio))
+                .description("Share of filter bits set")
+                .register(meterRegistry);
+        Gauge.builder("gatepass.pass_code_filter.expected_false_positive_rate", this,
+                        filter -> filter.stat(BloomFilter::falsePositiveRate))
+                .description("False positive rate implied by the current fill ratio")
+                .register(meterRegistry);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gatepass.pass_code_filter.checks")
+                .description("Pass code lookups by what the filter answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled && !singleInstance) {
+            log.info("Pass code filter not built: other instances may create passes it cannot see in time, "
+                    + "set pass-code-filter.single-instance=true if this is the only one");
+        } else if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Deleted codes stay in the filter and an overfull one loses precision, so both trigger a rebuild
+    @Scheduled(fixedDelayString = "${pass-code-filter.rebuild-check-interval}",
+            initialDelayString = "${pass-code-filter.rebuild-check-interval}")
+    public void rebuildIfStale() {
+        BloomFilter filter = current;
+        if (filter != null && (filter.entries() > filter.capacity()
+                || removedSinceBuild.get() > filter.capacity() / 10)) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long passes = mongoTemplate.estimatedCount(Pass.class);
+        BloomFilter next = new BloomFilter(Math.max(expectedPasses, passes * 2), falsePositiveRate);
+        long removed = removedSinceBuild.get();
+        rebuilding = next;
+        try {
+            Query codes = new Query();
+            codes.fields().include("event_id").include("pass_code").exclude("_id");
+            try (Stream<Document> documents = mongoTemplate.stream(codes, Document.class,
+                    mongoTemplate.getCollectionName(Pass.class))) {
+                documents.forEach(document -> next.add(
+                        key(document.getString("event_id"), document.getString("pass_code"))));
+            }
+            current = next;
+            removedSinceBuild.addAndGet(-removed);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build pass code filter, lookups keep going to MongoDB: {}", ex.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+        if (current == next) {
+            log.info("Built pass code filter: {} codes, {} KiB, {} hash functions in {} ms", next.entries(),
+                    next.sizeBytes() / 1024, next.hashes(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // True only when the code was certainly never added; null codes are left to the caller
+    public boolean definitelyAbsent(String eventId, String passCode) {
+        BloomFilter filter = current;
+        if (filter == null || passCode == null) {
+            return false;
+        }
+        if (filter.mightContain(key(eventId, passCode))) {
+            maybePresent.increment();
+            return false;
+        }
+        absent.increment();
+        return true;
+    }
+
+    // The filter let a code through that MongoDB then did not find
+    public void falsePositive() {
+        if (current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    // Rebuilding is read first: a rebuild that has already swapped clears it only after current is set
+    public void add(String eventId, String passCode) {
+        if (passCode == null) {
+            return;
+        }
+        String key = key(eventId, passCode);
+        BloomFilter next = rebuilding;
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.add(key);
+        }
+        if (next != null) {
+            next.add(key);
+        }
+    }
+
+    public void addAll(Collection<Pass> passes) {
+        passes.forEach(pass -> add(pass.getEventId(), pass.getPassCode()));
+    }
+
+    // Event ids cannot contain a dot, so the pair maps to one string unambiguously
+    private static String key(String eventId, String passCode) {
+        return eventId + "." + passCode;
+    }
+
+    public void removed() {
+        removedSinceBuild.incrementAndGet();
+    }
+
+    private double stat(ToDoubleFunction<BloomFilter> value) {
+        BloomFilter filter = current;
+        return filter == null ? 0 : value.applyAsDouble(filter);
+    }
+
+    private static final class BloomFilter {
+
+        private static final double LN2 = Math.log(2);
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong entries = new AtomicLong();
+
+        // m = -n ln p / (ln 2)^2 bits and k = (m / n) ln 2 hash functions
+        BloomFilter(long capacity, double falsePositiveRate) {
+            this.capacity = Math.max(1, capacity);
+            long requiredBits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (requiredBits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount * 64;
+            this.hashes = (int) Math.max(1, Math.min(30, Math.round((double) bits / this.capacity * LN2)));
+        }
+
+        void add(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                long mask = 1L << bit;
+                words.accumulateAndGet((int) (bit >>> 6), mask, (word, set) -> word | set);
+            }
+            entries.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+
+        long entries() {
+            return entries.get();
+        }
+
+        long capacity() {
+            return capacity;
+        }
+
+        int hashes() {
+            return hashes;
+        }
+
+        long sizeBytes() {
+            return bits / 8;
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / bits;
+        }
+
+        double falsePositiveRate() {
+            return Math.pow(fillRatio(), hashes);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Signed pass codes: GP1.<event>.<pass code>.<key id>.<mac>, where mac is a truncated HMAC-SHA256 of
+// everything before it. pass_code keeps the plain code; the signed form is what gets printed on the
+// pass. A scanned code is checked here in about a microsecond, so forged, copied-from-another-event
+// or garbled codes are turned away before the cache or MongoDB are touched.
+@Slf4j
+@Component
+public class PassCodeSigner {
+
+    public static final String PREFIX = "GP1";
+    // resolve parses every code in the signed form as signed, so no plain code may take that form
+    public static final String PLAIN_CODE_PATTERN = "(?s)(?!" + PREFIX + "\\.).*";
+    public static final String PLAIN_CODE_MESSAGE = "Pass code must not start with " + PREFIX + ".";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    // 128 bits of the MAC keeps the printed code short while leaving guessing out of reach
+    private static final int MAC_LENGTH = 16;
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Map<String, Mac> keys;
+    private final String activeKeyId;
+    private final boolean acceptUnsigned;
+    private final Meter.MeterProvider<Counter> checks;
+
+    public PassCodeSigner(MeterRegistry meterRegistry,
+                          @Value("${pass-codes.keys}") String keys,
+                          @Value("${pass-codes.active-key-id}") String activeKeyId,
+                          @Value("${pass-codes.accept-unsigned}") boolean acceptUnsigned) {
+        this.keys = parseKeys(keys);
+        this.activeKeyId = activeKeyId.isBlank()
+                ? this.keys.keySet().stream().findFirst().orElse(null)
+                : activeKeyId.trim();
+        if (this.activeKeyId != null && !this.keys.containsKey(this.activeKeyId)) {
+            throw new IllegalStateException("pass-codes.active-key-id " + this.activeKeyId + " is not in pass-codes.keys");
+        }
+        this.acceptUnsigned = acceptUnsigned;
+        this.checks = Counter.builder("gatepass.pass_codes.checks")
+                .description("Scanned pass codes by signature check result")
+                .withRegistry(meterRegistry);
+        if (isEnabled()) {
+            log.info("Signed pass codes: signing with key {}, {} verification keys, unsigned codes {}",
+                    this.activeKeyId, this.keys.size(), acceptUnsigned ? "accepted" : "rejected");
+        }
+    }
+
+    // kid:base64-secret pairs, comma-separated; every listed key verifies, the active one also signs
+    private static Map<String, Mac> parseKeys(String keys) {
+        Map<String, Mac> parsed = new LinkedHashMap<>();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || !TOKEN.matcher(parts[0]).matches()) {
+                throw new IllegalStateException("pass-codes.keys entries must look like <key id>:<base64 secret>");
+            }
+            byte[] secret = Base64.getDecoder().decode(parts[1].trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("pass-codes key " + parts[0] + " must be at least 32 bytes");
+            }
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(secret, ALGORITHM));
+                parsed.put(parts[0], mac);
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, ex);
+            }
+        }
+        return parsed;
+    }
+
+    public static boolean hasSignedForm(String code) {
+        return code.startsWith(PREFIX + ".");
+    }
+
+    public boolean isEnabled() {
+        return activeKeyId != null;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    // Matches codes signed for the event with the active key, for finding the ones that are not
+    public String activeCodePattern(String eventId) {
+        return "^" + Pattern.quote(PREFIX + "." + eventId + ".") + ".*"
+                + Pattern.quote("." + activeKeyId + ".") + "[A-Za-z0-9_-]+$";
+    }
+
+    // Null when no key is configured, so passes simply carry no signed code
+    public String sign(String eventId, String passCode) {
+        if (!isEnabled() || passCode == null) {
+            return null;
+        }
+        String payload = PREFIX + "." + eventId + "." + passCode + "." + activeKeyId;
+        return payload + "." + ENCODER.encodeToString(mac(activeKeyId, payload));
+    }
+
+    // The plain pass code to look up for a code scanned at the event, or PassNotFoundException without any I/O
+    public String resolve(String eventId, String scanned) {
+        if (!isEnabled() || scanned == null) {
+            return scanned;
+        }
+        if (!hasSignedForm(scanned)) {
+            if (!acceptUnsigned) {
+                throw reject("unsigned_rejected", "Pass code is not signed: " + scanned);
+            }
+            checks.withTag("result", "unsigned").increment();
+            return scanned;
+        }
+
+        // The pass code itself may contain dots, so the key id and MAC are taken from the end
+        int macDot = scanned.lastIndexOf('.');
+        int keyDot = macDot > 0 ? scanned.lastIndexOf('.', macDot - 1) : -1;
+        int eventDot = scanned.indexOf('.', PREFIX.length() + 1);
+        if (eventDot < 0 || keyDot <= eventDot) {
+            throw reject("malformed", "Malformed pass code: " + scanned);
+        }
+        String event = scanned.substring(PREFIX.length() + 1, eventDot);
+        String keyId = scanned.substring(keyDot + 1, macDot);
+        if (!eventId.equals(event)) {
+            throw reject("wrong_event", "Pass code belongs to another event: " + scanned);
+        }
+        if (!keys.containsKey(keyId)) {
+            throw reject("unknown_key", "Pass code signed with an unknown or retired key: " + scanned);
+        }
+        // Compared in encoded form: decoding would accept several spellings of the same MAC
+        byte[] expected = ENCODER.encode(mac(keyId, scanned.substring(0, macDot)));
+        byte[] presented = scanned.substring(macDot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(presented, expected)) {
+            throw reject("forged", "Pass code signature does not match: " + scanned);
+        }
+        checks.withTag("result", "signed").increment();
+        return scanned.substring(eventDot + 1, keyDot);
+    }
+
+    private PassNotFoundException reject(String reason, String message) {
+        checks.withTag("result", reason).increment();
+        return new PassNotFoundException(message);
+    }
+
+    // Mac instances are not thread-safe; a clone of the initialised prototype skips key setup
+    private byte[] mac(String keyId, String payload) {
+        try {
+            Mac mac = (Mac) keys.get(keyId).clone();
+            return Arrays.copyOf(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)), MAC_LENGTH);
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ALGORITHM + " does not support clone", ex);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.exception.InvalidEventIdException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassStats;
+import com.hackathon.gatepass.model.PassTombstone;
+import com.hackathon.gatepass.model.ScanAudit;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Every pass belongs to an event. /api/passes addresses the default event, so existing clients and
+// printed URLs keep working; /api/events/{eventId}/passes addresses any event.
+@Slf4j
+@Component
+public class PassEvents {
+
+    // Also embedded in signed pass codes, which use '.' as their separator
+    private static final Pattern EVENT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    // Global indexes from before events; the unique pass_code one would stop two events sharing a code
+    private static final List<String> LEGACY_PASS_INDEXES = List.of("pass_code", "created_at_id", "updated_at_id",
+            "entry_goodies_created_at_id", "goodies_created_at_id", "verified_by_created_at_id",
+            "goodies_given_by_created_at_id", "college_key_entry_goodies");
+    private static final String LEGACY_STATS_ID = "global";
+
+    private final MongoTemplate mongoTemplate;
+    private final String defaultEventId;
+
+    public PassEvents(MongoTemplate mongoTemplate,
+                      @Value("${events.default-id}") String defaultEventId) {
+        if (!EVENT_ID.matcher(defaultEventId).matches()) {
+            throw new IllegalStateException("events.default-id may only contain letters, digits, - and _");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.defaultEventId = defaultEventId;
+    }
+
+    public String getDefaultEventId() {
+        return defaultEventId;
+    }
+
+    // The event a request addresses: the path variable, or the default event for /api/passes
+    public String resolve(String eventId) {
+        if (eventId == null) {
+            return defaultEventId;
+        }
+        if (!EVENT_ID.matcher(eventId).matches()) {
+            throw new InvalidEventIdException("Invalid event id: " + eventId
+                    + " (use up to 64 letters, digits, - or _)");
+        }
+        return eventId;
+    }
+
+    // Passes, tombstones and stats written before events existed all belong to the default event
+    @PostConstruct
+    public void migrateToEvents() {
+        long passes = mongoTemplate.updateMulti(Query.query(Criteria.where("event_id").exists(false)),
+                new Update().set("event_id", defaultEventId), Pass.class).getModifiedCount();
+        mongoTemplate.updateMulti(Query.query(Criteria.where("event_id").exists(false)),
+                new Update().set("event_id", defaultEventId), PassTombstone.class);
+        if (passes > 0) {
+            log.info("Assigned {} passes to default event {}", passes, defaultEventId);
+        }
+
+        String statsCollection = mongoTemplate.getCollectionName(PassStats.class);
+        Document legacyStats = mongoTemplate.findById(LEGACY_STATS_ID, Document.class, statsCollection);
+        if (legacyStats != null) {
+            // Moved rather than rebuilt so the ETag version keeps counting up
+            if (mongoTemplate.findById(defaultEventId, Document.class, statsCollection) == null) {
+                legacyStats.put("_id", defaultEventId);
+                mongoTemplate.insert(legacyStats, statsCollection);
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(LEGACY_STATS_ID)), statsCollection);
+        }
+
+        dropIndexes(mongoTemplate.indexOps(Pass.class), LEGACY_PASS_INDEXES);
+        dropIndexes(mongoTemplate.indexOps(ScanAudit.class), List.of("pass_code_at"));
+    }
+
+    private void dropIndexes(IndexOperations indexes, List<String> names) {
+        for (IndexInfo index : indexes.getIndexInfo()) {
+            if (names.contains(index.getName())) {
+                indexes.dropIndex(index.getName());
+                log.info("Dropped pre-event index {}", index.getName());
+            }
+        }
+    }
+}
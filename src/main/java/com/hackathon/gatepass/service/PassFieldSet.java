@@ -0,0 +1,102 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.exception.InvalidFieldSetException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The fields= parameter: a named profile or a comma-separated list of PassResponse properties.
+// Pass and PassResponse share property names, so the same set drives the Mongo projection.
+public final class PassFieldSet {
+
+    private static final Set<String> ALL_FIELDS = Arrays.stream(PassResponse.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+            .map(Field::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    private static final List<String> SCANNER = List.of(
+            "id", "passCode", "name", "teamName", "college", "entryVerified", "goodiesGiven");
+
+    private static final Map<String, List<String>> PROFILES = Map.of(
+            "scanner", SCANNER,
+            "table", concat(SCANNER, List.of("teamId", "email", "mobile", "verifiedBy", "goodiesGivenBy",
+                    "entryVerifiedAt", "goodiesGivenAt", "createdAt")));
+
+    public static final PassFieldSet FULL = new PassFieldSet(null);
+
+    private final Set<String> fields;
+
+    private PassFieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static PassFieldSet parse(String param) {
+        if (param == null || param.isBlank() || "full".equalsIgnoreCase(param.trim())) {
+            return FULL;
+        }
+        List<String> profile = PROFILES.get(param.trim().toLowerCase());
+        if (profile != null) {
+            return new PassFieldSet(new LinkedHashSet<>(profile));
+        }
+
+        Set<String> requested = Arrays.stream(param.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : requested) {
+            if (!ALL_FIELDS.contains(field)) {
+                throw new InvalidFieldSetException("Unknown field: " + field
+                        + " (use scanner, table, full or any of " + String.join(", ", ALL_FIELDS) + ")");
+            }
+        }
+        if (requested.isEmpty()) {
+            return FULL;
+        }
+        return new PassFieldSet(requested);
+    }
+
+    public boolean isFull() {
+        return fields == null;
+    }
+
+    // Properties to load from Mongo, or null for the whole document
+    public Set<String> getFields() {
+        return fields == null ? null : Collections.unmodifiableSet(fields);
+    }
+
+    public MappingJacksonValue wrap(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filters());
+        return value;
+    }
+
+    public FilterProvider filters() {
+        if (isFull()) {
+            return defaultFilters();
+        }
+        return new SimpleFilterProvider()
+                .addFilter(PassResponse.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    // Registered on the application ObjectMapper so PassResponse serializes in full when no field set applies
+    public static FilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setFailOnUnknownId(false);
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        return Stream.concat(first.stream(), second.stream()).collect(Collectors.toList());
+    }
+}
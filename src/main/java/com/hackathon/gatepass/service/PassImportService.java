@@ -0,0 +1,263 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.hackathon.gatepass.dto.ImportPassRow;
+import com.hackathon.gatepass.dto.ImportResponse;
+import com.hackathon.gatepass.dto.PassEvent;
+import com.hackathon.gatepass.model.Pass;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class PassImportService {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final PassStatsService statsService;
+    private final PassSyncService syncService;
+    private final DashboardFeed dashboardFeed;
+    private final PassCodeSigner passCodeSigner;
+    private final PassCodeFilter passCodeFilter;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+    private final int maxReportedRows;
+
+    public PassImportService(MongoTemplate mongoTemplate,
+                             PassStatsService statsService,
+                             PassSyncService syncService,
+                             DashboardFeed dashboardFeed,
+                             PassCodeSigner passCodeSigner,
+                             PassCodeFilter passCodeFilter,
+                             ObjectMapper objectMapper,
+                             @Value("${pass-import.batch-size}") int batchSize,
+                             @Value("${pass-import.max-reported-rows}") int maxReportedRows) {
+        this.mongoTemplate = mongoTemplate;
+        this.statsService = statsService;
+        this.syncService = syncService;
+        this.dashboardFeed = dashboardFeed;
+        this.passCodeSigner = passCodeSigner;
+        this.passCodeFilter = passCodeFilter;
+        this.batchSize = batchSize;
+        this.maxReportedRows = maxReportedRows;
+        this.ndjsonReader = objectMapper.readerFor(ImportPassRow.class);
+        this.csvReader = new CsvMapper()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .registerModule(new SimpleModule().addDeserializer(String.class, new CsvCellDeserializer()))
+                .readerFor(ImportPassRow.class)
+                .with(CsvSchema.emptySchema().withHeader());
+    }
+
+    public ImportResponse importPasses(String eventId, InputStream input, ImportFormat format,
+                                       boolean ordered) throws IOException {
+        ImportResponse response = ImportResponse.builder().build();
+        List<Pass> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+        boolean aborted = false;
+        long rowNumber = 0;
+
+        ObjectReader reader = format == ImportFormat.CSV ? csvReader : ndjsonReader;
+        try (MappingIterator<ImportPassRow> rows = reader.readValues(input)) {
+            while (!aborted) {
+                ImportPassRow row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    row = rows.nextValue();
+                } catch (IOException | RuntimeException ex) {
+                    // A malformed record leaves the parser in an unknown position, so stop reading
+                    report(response, rowNumber, null, ImportResponse.RowStatus.FAILED, "Malformed row: " + ex.getMessage());
+                    response.setFailed(response.getFailed() + 1);
+                    break;
+                }
+
+                String problem = validate(row);
+                if (problem != null) {
+                    report(response, rowNumber, row.getPassCode(), ImportResponse.RowStatus.INVALID, problem);
+                    response.setInvalid(response.getInvalid() + 1);
+                    if (ordered) {
+                        if (!batch.isEmpty()) {
+                            flush(eventId, batch, batchRows, true, response);
+                        }
+                        aborted = true;
+                    }
+                    continue;
+                }
+
+                batch.add(toPass(eventId, row));
+                batchRows.add(rowNumber);
+                if (batch.size() >= batchSize) {
+                    aborted = !flush(eventId, batch, batchRows, ordered, response);
+                }
+            }
+
+            if (!aborted && !batch.isEmpty()) {
+                flush(eventId, batch, batchRows, ordered, response);
+            }
+        }
+
+        response.setTotalRows(rowNumber);
+        response.setSkipped(rowNumber - response.getInserted() - response.getDuplicates()
+                - response.getInvalid() - response.getFailed());
+        log.info("Imported {} of {} pass rows into event {} ({} duplicates, {} invalid, {} failed, {} skipped)",
+                response.getInserted(), rowNumber, eventId, response.getDuplicates(), response.getInvalid(),
+                response.getFailed(), response.getSkipped());
+        return response;
+    }
+
+    private boolean flush(String eventId, List<Pass> batch, List<Long> batchRows, boolean ordered,
+                          ImportResponse response) {
+        BulkOperations operations = mongoTemplate.bulkOps(
+                ordered ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED, Pass.class);
+        operations.insert(batch);
+
+        Set<Integer> rejected = new HashSet<>();
+        int attempted = batch.size();
+        try {
+            operations.execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                int index = error.getIndex();
+                rejected.add(index);
+                boolean duplicate = error.getCode() == DUPLICATE_KEY_ERROR;
+                report(response, batchRows.get(index), batch.get(index).getPassCode(),
+                        duplicate ? ImportResponse.RowStatus.DUPLICATE : ImportResponse.RowStatus.FAILED,
+                        duplicate ? "Pass code already exists" : error.getMessage());
+                if (duplicate) {
+                    response.setDuplicates(response.getDuplicates() + 1);
+                } else {
+                    response.setFailed(response.getFailed() + 1);
+                }
+            }
+            if (ordered && !ex.getErrors().isEmpty()) {
+                attempted = ex.getErrors().get(0).getIndex() + 1;
+                // An ordered write stops at the first error, so the rest of the batch was never sent
+                for (int i = attempted; i < batch.size(); i++) {
+                    report(response, batchRows.get(i), batch.get(i).getPassCode(), ImportResponse.RowStatus.SKIPPED,
+                            "Not attempted, the ordered import stopped at row " + batchRows.get(attempted - 1));
+                }
+            }
+        } finally {
+            // Rejected and unattempted rows too: an extra code only costs a lookup, a missing one hides a pass
+            passCodeFilter.addAll(batch);
+        }
+
+        List<Pass> inserted = new ArrayList<>(attempted);
+        for (int i = 0; i < attempted; i++) {
+            if (!rejected.contains(i)) {
+                inserted.add(batch.get(i));
+            }
+        }
+        response.setInserted(response.getInserted() + inserted.size());
+        syncService.stampCreated(eventId, inserted.stream().map(Pass::getPassCode).toList());
+        statsService.onCreated(inserted);
+        if (!inserted.isEmpty()) {
+            dashboardFeed.publish(PassEvent.builder()
+                    .type(PassEvent.Type.IMPORTED)
+                    .eventId(eventId)
+                    .count((long) inserted.size())
+                    .at(Instant.now())
+                    .build());
+        }
+
+        batch.clear();
+        batchRows.clear();
+        return rejected.isEmpty() || !ordered;
+    }
+
+    private void report(ImportResponse response, long row, String passCode,
+                        ImportResponse.RowStatus status, String message) {
+        if (response.getRows().size() >= maxReportedRows) {
+            response.setRowsTruncated(true);
+            return;
+        }
+        response.getRows().add(ImportResponse.RowResult.builder()
+                .row(row)
+                .passCode(passCode)
+                .status(status)
+                .message(message)
+                .build());
+    }
+
+    private String validate(ImportPassRow row) {
+        if (row == null || row.getPassCode() == null || row.getPassCode().isBlank()) {
+            return "Pass code is required";
+        }
+        if (PassCodeSigner.hasSignedForm(row.getPassCode())) {
+            return PassCodeSigner.PLAIN_CODE_MESSAGE;
+        }
+        if (row.getTeamName() == null || row.getTeamName().isBlank()) {
+            return "Team name is required";
+        }
+        return null;
+    }
+
+    private Pass toPass(String eventId, ImportPassRow row) {
+        String passCode = row.getPassCode().trim();
+        return Pass.builder()
+                .eventId(eventId)
+                .teamId(row.getTeamId())
+                .teamName(row.getTeamName())
+                .name(row.getName())
+                .email(row.getEmail())
+                .mobile(row.getMobile())
+                .gender(row.getGender())
+                .location(row.getLocation())
+                .userType(row.getUserType())
+                .domain(row.getDomain())
+                .course(row.getCourse())
+                .specialization(row.getSpecialization())
+                .yearOfGraduation(row.getYearOfGraduation())
+                .college(row.getCollege())
+                .collegeKey(PassSearchKeys.collegeKey(row.getCollege()))
+                .unstopReportUrl(row.getUnstopReportUrl())
+                .pptUrl(row.getPptUrl())
+                .passCode(passCode)
+                .signedPassCode(passCodeSigner.sign(eventId, passCode))
+                .entryVerified(false)
+                .goodiesGiven(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    // Removes the ' a CSV export escapes cells with
+    private static final class CsvCellDeserializer extends StringDeserializer {
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CsvCells.read(super.deserialize(parser, context));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import com.hackathon.gatepass.model.PassAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+@Component
+public class PassMetrics {
+
+    public static final String SCAN_LOOKUP = "scan_lookup";
+    public static final String SCAN_APPLY = "scan_apply";
+    public static final String VERIFY_ENTRY = "verify_entry";
+    public static final String GIVE_GOODIES = "give_goodies";
+    public static final String VERIFY_BATCH = "verify_batch";
+    public static final String FILTER = "filter";
+    public static final String STATS = "stats";
+
+    public static final String SOURCE_ONLINE = "online";
+    public static final String SOURCE_BATCH = "batch";
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_NOT_FOUND = "not_found";
+    private static final String OUTCOME_ALREADY_VERIFIED = "already_verified";
+    private static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> operationTimers;
+    private final Meter.MeterProvider<Counter> duplicateScans;
+
+    public PassMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.operationTimers = Timer.builder("gatepass.pass.operations")
+                .description("Pass service operations by outcome")
+                .withRegistry(meterRegistry);
+        this.duplicateScans = Counter.builder("gatepass.scans.duplicate")
+                .description("Scans of passes whose action was already applied")
+                .withRegistry(meterRegistry);
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_SUCCESS;
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            sample.stop(operationTimers.withTags("operation", operation, "outcome", outcome));
+        }
+    }
+
+    // Timed from subscription to completion, so the measured span is the Mongo round trip, not assembly
+    public <T> Mono<T> record(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(value -> sample.stop(
+                            operationTimers.withTags("operation", operation, "outcome", OUTCOME_SUCCESS)))
+                    .doOnError(ex -> sample.stop(
+                            operationTimers.withTags("operation", operation, "outcome", outcomeOf(ex))));
+        });
+    }
+
+    public void duplicateScan(PassAction action, String source) {
+        duplicateScans.withTags("action", action.name().toLowerCase(), "source", source).increment();
+    }
+
+    static String outcomeOf(Throwable ex) {
+        if (ex instanceof PassNotFoundException) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (ex instanceof PassAlreadyVerifiedException) {
+            return OUTCOME_ALREADY_VERIFIED;
+        }
+        return OUTCOME_ERROR;
+    }
+
+    static String outcomeOf(TransitionResult.Outcome outcome) {
+        switch (outcome) {
+            case APPLIED:
+                return OUTCOME_SUCCESS;
+            case ALREADY_DONE:
+                return OUTCOME_ALREADY_VERIFIED;
+            default:
+                return OUTCOME_NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.PageResponse;
+import com.hackathon.gatepass.exception.InvalidPageRequestException;
+import com.hackathon.gatepass.model.Pass;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class PassPager {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum SortKey {
+        CREATED_AT("createdAt", "created_at"),
+        ID("id", "_id");
+
+        private final String param;
+        private final String field;
+
+        public static SortKey fromParam(String param) {
+            return Arrays.stream(values())
+                    .filter(key -> key.param.equalsIgnoreCase(param))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidPageRequestException("Unsupported sort: " + param));
+        }
+    }
+
+    public PageResponse<Pass> page(Criteria filter, Set<String> fields,
+                                   String cursor, Integer limit, String sort, String direction) {
+        SortKey sortKey = SortKey.fromParam(sort);
+        Sort.Direction sortDirection = parseDirection(direction);
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Criteria criteria = filter;
+        if (cursor != null && !cursor.isEmpty()) {
+            criteria = new Criteria().andOperator(filter, afterCursor(cursor, sortKey, sortDirection));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(sortDirection, sortKey.getField()).and(Sort.by(sortDirection, "_id")))
+                .limit(pageSize + 1);
+        if (fields != null) {
+            // The cursor is built from the sort key, so it is loaded even when not requested
+            fields.forEach(query.fields()::include);
+            query.fields().include(sortKey.getParam());
+        }
+
+        List<Pass> passes = mongoTemplate.find(query, Pass.class);
+        boolean hasMore = passes.size() > pageSize;
+        if (hasMore) {
+            passes = passes.subList(0, pageSize);
+        }
+
+        return PageResponse.<Pass>builder()
+                .items(passes)
+                .limit(pageSize)
+                .sort(sortKey.getParam())
+                .direction(sortDirection.name().toLowerCase())
+                .nextCursor(hasMore ? encodeCursor(sortKey, passes.get(passes.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private Criteria afterCursor(String cursor, SortKey sortKey, Sort.Direction direction) {
+        String[] parts = decodeCursor(cursor);
+        if (!parts[0].equals(sortKey.name()) || parts.length != (sortKey == SortKey.ID ? 2 : 3)) {
+            throw new InvalidPageRequestException("Cursor does not match sort: " + sortKey.getParam());
+        }
+
+        ObjectId lastId = parseObjectId(parts[parts.length - 1]);
+        if (sortKey == SortKey.ID) {
+            return direction.isAscending()
+                    ? Criteria.where("_id").gt(lastId)
+                    : Criteria.where("_id").lt(lastId);
+        }
+
+        // MongoDB sorts a missing created_at like null, before every date, so those passes open an
+        // ascending page and close a descending one; the cursor marks them with an empty value
+        Instant lastValue = parts[1].isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(parts[1]));
+        Criteria tieBreak = new Criteria().andOperator(
+                Criteria.where(sortKey.getField()).is(lastValue),
+                direction.isAscending() ? Criteria.where("_id").gt(lastId) : Criteria.where("_id").lt(lastId));
+        if (lastValue == null) {
+            return direction.isAscending()
+                    ? new Criteria().orOperator(tieBreak, Criteria.where(sortKey.getField()).ne(null))
+                    : tieBreak;
+        }
+        return direction.isAscending()
+                ? new Criteria().orOperator(Criteria.where(sortKey.getField()).gt(lastValue), tieBreak)
+                : new Criteria().orOperator(Criteria.where(sortKey.getField()).lt(lastValue), tieBreak,
+                        Criteria.where(sortKey.getField()).is(null));
+    }
+
+    private String encodeCursor(SortKey sortKey, Pass last) {
+        Instant createdAt = last.getCreatedAt();
+        String raw = sortKey == SortKey.ID
+                ? sortKey.name() + "|" + last.getId()
+                : sortKey.name() + "|" + (createdAt == null ? "" : createdAt.toEpochMilli()) + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == 3 && !parts[1].isEmpty()) {
+                Long.parseLong(parts[1]);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    private ObjectId parseObjectId(String id) {
+        if (!ObjectId.isValid(id)) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+        return new ObjectId(id);
+    }
+
+    private Sort.Direction parseDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new InvalidPageRequestException("Unsupported direction: " + direction));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Normalized copies of searchable fields. Filters match these with equality or an anchored
+// case-sensitive prefix, which MongoDB turns into index bounds instead of a collection scan.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PassSearchKeys {
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public static String collegeKey(String college) {
+        if (college == null) {
+            return null;
+        }
+        String key = college.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    // ^ plus the escaped key; only literal characters follow the anchor so the whole prefix becomes the index range
+    public static String collegePrefixPattern(String college) {
+        String key = collegeKey(college);
+        if (key == null) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder(key.length() + 8).append('^');
+        for (char c : key.toCharArray()) {
+            if (!Character.isLetterOrDigit(c) && c != ' ') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.toString();
+    }
+
+    @PostConstruct
+    public void backfillCollegeKey() {
+        Query missing = Query.query(Criteria.where("college").exists(true).and("college_key").exists(false));
+        missing.fields().include("college");
+
+        BulkOperations operations = null;
+        int pending = 0;
+        long updated = 0;
+        try (Stream<Document> passes = mongoTemplate.stream(missing, Document.class,
+                mongoTemplate.getCollectionName(Pass.class))) {
+            for (Document pass : (Iterable<Document>) passes::iterator) {
+                String key = collegeKey(pass.getString("college"));
+                if (key == null) {
+                    continue;
+                }
+                if (operations == null) {
+                    operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pass.class);
+                }
+                operations.updateOne(Query.query(Criteria.where("_id").is(pass.get("_id"))),
+                        new Update().set("college_key", key));
+                if (++pending == BACKFILL_BATCH_SIZE) {
+                    updated += operations.execute().getModifiedCount();
+                    operations = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (operations != null) {
+            updated += operations.execute().getModifiedCount();
+        }
+        if (updated > 0) {
+            log.info("Backfilled college_key on {} passes", updated);
+        }
+    }
+}
@@ -1,191 +1,439 @@
 package com.hackathon.gatepass.service;
 
+import com.hackathon.gatepass.dto.BatchVerifyItem;
+import com.hackathon.gatepass.dto.BatchVerifyRequest;
+import com.hackathon.gatepass.dto.BatchVerifyResponse;
 import com.hackathon.gatepass.dto.CreatePassRequest;
+import com.hackathon.gatepass.dto.PageResponse;
+import com.hackathon.gatepass.dto.PassEvent;
 import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.SignPassCodesResponse;
 import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.dto.SyncResponse;
 import com.hackathon.gatepass.dto.VerifyRequest;
 import com.hackathon.gatepass.exception.DuplicatePassCodeException;
 import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
 import com.hackathon.gatepass.exception.PassNotFoundException;
 import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.ScanAudit;
 import com.hackathon.gatepass.repository.PassRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PassService {
 
+    private static final int SIGN_BATCH_SIZE = 1000;
+
     private final PassRepository passRepository;
     private final MongoTemplate mongoTemplate;
+    private final PassTransitionEngine transitionEngine;
+    private final PassCache passCache;
+    private final PassStatsService statsService;
+    private final PassThroughputService throughputService;
+    private final PassPager passPager;
+    private final PassSyncService syncService;
+    private final DashboardFeed dashboardFeed;
+    private final PassMetrics passMetrics;
+    private final ScanAuditLog scanAuditLog;
+    private final PassCodeSigner passCodeSigner;
+    private final PassCodeFilter passCodeFilter;
 
-    public PassResponse createPass(CreatePassRequest request) {
-        if (passRepository.existsByPassCode(request.getPassCode())) {
-            throw new DuplicatePassCodeException("Pass code already exists: " + request.getPassCode());
+    public PassResponse createPass(String eventId, CreatePassRequest request) {
+        // A code the filter has never seen needs no lookup; the unique index still settles concurrent creates
+        if (!passCodeFilter.definitelyAbsent(eventId, request.getPassCode())) {
+            if (passRepository.existsByEventIdAndPassCode(eventId, request.getPassCode())) {
+                throw new DuplicatePassCodeException("Pass code already exists: " + request.getPassCode());
+            }
+            passCodeFilter.falsePositive();
         }
 
+        Instant now = Instant.now();
         Pass pass = Pass.builder()
+                .eventId(eventId)
                 .passCode(request.getPassCode())
+                .signedPassCode(passCodeSigner.sign(eventId, request.getPassCode()))
                 .teamName(request.getTeamName())
                 .entryVerified(false)
                 .goodiesGiven(false)
-                .createdAt(Instant.now())
+                .createdAt(now)
                 .build();
 
-        Pass savedPass = passRepository.save(pass);
+        Pass savedPass;
+        try {
+            savedPass = passRepository.save(pass);
+        } catch (DuplicateKeyException ex) {
+            throw new DuplicatePassCodeException("Pass code already exists: " + request.getPassCode());
+        } finally {
+            passCodeFilter.add(eventId, request.getPassCode());
+        }
+        syncService.stampCreated(eventId, List.of(savedPass.getPassCode()));
+        statsService.onCreated(savedPass);
+        dashboardFeed.publish(toEvent(PassEvent.Type.CREATED, savedPass, null, savedPass.getCreatedAt()));
         return mapToResponse(savedPass);
     }
 
-    public PassResponse getPassByCode(String passCode) {
-        Pass pass = passRepository.findByPassCode(passCode)
-                .orElseThrow(() -> new PassNotFoundException("Pass not found with code: " + passCode));
-        return mapToResponse(pass);
+    // Served from the pass cache, which holds whole documents, so fields only trim the response
+    public PassResponse getPassByCode(String eventId, String passCode) {
+        return recordScan(PassMetrics.SCAN_LOOKUP, ScanAudit.builder().eventId(eventId).passCode(passCode), () -> {
+            String code = lookupCode(eventId, passCode);
+            Pass pass = passCache.getByCode(eventId, code,
+                    key -> passRepository.findByEventIdAndPassCode(eventId, key)).orElseThrow(() -> {
+                passCodeFilter.falsePositive();
+                return new PassNotFoundException("Pass not found with code: " + code);
+            });
+            return mapToResponse(pass);
+        });
     }
 
-    public PassResponse verifyEntry(String id, VerifyRequest request) {
-        Pass pass = passRepository.findById(id)
-                .orElseThrow(() -> new PassNotFoundException("Pass not found with id: " + id));
+    public PassResponse verifyEntry(String eventId, String id, VerifyRequest request) {
+        return recordScan(PassMetrics.VERIFY_ENTRY,
+                audit(eventId, PassAction.ENTRY, request.getVerifiedBy()).passId(id),
+                () -> applyTransition(eventId, Criteria.where("event_id").is(eventId).and("_id").is(id),
+                        "id: " + id, PassAction.ENTRY, request.getVerifiedBy()));
+    }
+
+    public PassResponse giveGoodies(String eventId, String id, VerifyRequest request) {
+        return recordScan(PassMetrics.GIVE_GOODIES,
+                audit(eventId, PassAction.GOODIES, request.getVerifiedBy()).passId(id),
+                () -> applyTransition(eventId, Criteria.where("event_id").is(eventId).and("_id").is(id),
+                        "id: " + id, PassAction.GOODIES, request.getVerifiedBy()));
+    }
+
+    public PassResponse scanAndApply(String eventId, ScanActionRequest request) {
+        return recordScan(PassMetrics.SCAN_APPLY,
+                audit(eventId, request.getAction(), request.getVerifiedBy()).passCode(request.getPassCode()),
+                () -> {
+                    String code = lookupCode(eventId, request.getPassCode());
+                    try {
+                        return applyTransition(eventId,
+                                Criteria.where("event_id").is(eventId).and("pass_code").is(code),
+                                "code: " + code, request.getAction(), request.getVerifiedBy());
+                    } catch (PassNotFoundException ex) {
+                        passCodeFilter.falsePositive();
+                        throw ex;
+                    }
+                });
+    }
 
-        if (Boolean.TRUE.equals(pass.getEntryVerified())) {
-            throw new PassAlreadyVerifiedException("Entry already verified");
+    // The plain code to look up, or PassNotFoundException when the signature or the filter rules it out
+    String lookupCode(String eventId, String scanned) {
+        String code = passCodeSigner.resolve(eventId, scanned);
+        if (passCodeFilter.definitelyAbsent(eventId, code)) {
+            throw new PassNotFoundException("Pass not found with code: " + code);
         }
+        return code;
+    }
+
+    private PassResponse recordScan(String operation, ScanAudit.ScanAuditBuilder audit, Supplier<PassResponse> call) {
+        return passMetrics.record(operation, () -> scanAuditLog.record(
+                audit.operation(operation).source(PassMetrics.SOURCE_ONLINE), call));
+    }
 
-        pass.setEntryVerified(true);
-        pass.setVerifiedBy(request.getVerifiedBy());
-        pass.setEntryVerifiedAt(Instant.now());
+    static ScanAudit.ScanAuditBuilder audit(String eventId, PassAction action, String verifiedBy) {
+        return ScanAudit.builder().eventId(eventId).action(action).verifiedBy(verifiedBy);
+    }
 
-        Pass updatedPass = passRepository.save(pass);
-        return mapToResponse(updatedPass);
+    public BatchVerifyResponse verifyBatch(String eventId, BatchVerifyRequest request) {
+        return passMetrics.record(PassMetrics.VERIFY_BATCH, () -> applyBatch(eventId, request));
     }
 
-    public PassResponse giveGoodies(String id, VerifyRequest request) {
-        Pass pass = passRepository.findById(id)
-                .orElseThrow(() -> new PassNotFoundException("Pass not found with id: " + id));
+    private BatchVerifyResponse applyBatch(String eventId, BatchVerifyRequest request) {
+        Instant now = Instant.now();
+        // Codes ruled out by their signature or the filter are reported as not found without the bulk write
+        List<TransitionCommand> commands = new ArrayList<>(request.getItems().size());
+        List<TransitionCommand> checked = new ArrayList<>(request.getItems().size());
+        Set<TransitionCommand> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BatchVerifyItem item : request.getItems()) {
+            String passCode = item.getPassCode();
+            boolean valid = true;
+            if (item.getId() == null || item.getId().isBlank()) {
+                try {
+                    passCode = lookupCode(eventId, passCode);
+                } catch (PassNotFoundException ex) {
+                    valid = false;
+                }
+            }
+            TransitionCommand command = new TransitionCommand(eventId, item.getId(), passCode, item.getAction(),
+                    item.getVerifiedBy(), scanTime(item.getScannedAt(), now));
+            commands.add(command);
+            if (valid) {
+                checked.add(command);
+            } else {
+                rejected.add(command);
+            }
+        }
 
-        if (Boolean.TRUE.equals(pass.getGoodiesGiven())) {
-            throw new PassAlreadyVerifiedException("Goodies already given");
+        Iterator<TransitionResult> checkedResults = transitionEngine.applyAll(checked).iterator();
+        List<TransitionResult> results = new ArrayList<>(commands.size());
+        for (TransitionCommand command : commands) {
+            results.add(rejected.contains(command) ? TransitionResult.notFound() : checkedResults.next());
         }
 
-        pass.setGoodiesGiven(true);
-        pass.setGoodiesGivenBy(request.getVerifiedBy());
-        pass.setGoodiesGivenAt(Instant.now());
+        List<TransitionCommand> applied = new ArrayList<>();
+        List<BatchVerifyResponse.ItemResult> items = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            TransitionCommand command = commands.get(i);
+            TransitionResult result = results.get(i);
+            if (result.isApplied()) {
+                applied.add(command);
+                passCache.put(result.getPass());
+                dashboardFeed.publish(toEvent(eventType(command.getAction()), result.getPass(),
+                        command.getActor(), command.getAt()));
+            } else if (result.getOutcome() == TransitionResult.Outcome.ALREADY_DONE) {
+                passMetrics.duplicateScan(command.getAction(), PassMetrics.SOURCE_BATCH);
+            }
+            BatchVerifyResponse.ItemResult item = BatchVerifyResponse.ItemResult.builder()
+                    .index(i)
+                    .id(result.getPass() != null ? result.getPass().getId() : command.getId())
+                    .passCode(result.getPass() != null ? result.getPass().getPassCode() : command.getPassCode())
+                    .action(command.getAction())
+                    .outcome(toItemOutcome(result.getOutcome()))
+                    .build();
+            items.add(item);
+            scanAuditLog.append(audit(eventId, command.getAction(), command.getActor())
+                    .operation(PassMetrics.VERIFY_BATCH)
+                    .passId(item.getId())
+                    .passCode(item.getPassCode())
+                    .source(PassMetrics.SOURCE_BATCH)
+                    .outcome(PassMetrics.outcomeOf(result.getOutcome()))
+                    .at(command.getAt())
+                    .build());
+        }
+        statsService.onTransitions(eventId, applied);
+        throughputService.onTransitions(eventId, applied);
 
-        Pass updatedPass = passRepository.save(pass);
-        return mapToResponse(updatedPass);
+        return BatchVerifyResponse.builder()
+                .applied(count(items, BatchVerifyResponse.ItemOutcome.APPLIED))
+                .alreadyVerified(count(items, BatchVerifyResponse.ItemOutcome.ALREADY_VERIFIED))
+                .notFound(count(items, BatchVerifyResponse.ItemOutcome.NOT_FOUND))
+                .results(items)
+                .build();
     }
 
-    public List<PassResponse> getAllPasses() {
-        return passRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // Devices report when the scan happened; clock drift into the future is clamped to server time
+    private Instant scanTime(Instant scannedAt, Instant now) {
+        return scannedAt == null || scannedAt.isAfter(now) ? now : scannedAt;
     }
 
-    public List<PassResponse> getFilteredPasses(Boolean entryVerified, Boolean goodiesGiven, 
-                                                  String verifiedBy, String goodiesGivenBy, String college) {
-        Query query = new Query();
+    private BatchVerifyResponse.ItemOutcome toItemOutcome(TransitionResult.Outcome outcome) {
+        switch (outcome) {
+            case APPLIED:
+                return BatchVerifyResponse.ItemOutcome.APPLIED;
+            case ALREADY_DONE:
+                return BatchVerifyResponse.ItemOutcome.ALREADY_VERIFIED;
+            default:
+                return BatchVerifyResponse.ItemOutcome.NOT_FOUND;
+        }
+    }
+
+    private long count(List<BatchVerifyResponse.ItemResult> items, BatchVerifyResponse.ItemOutcome outcome) {
+        return items.stream().filter(item -> item.getOutcome() == outcome).count();
+    }
+
+    private PassResponse applyTransition(String eventId, Criteria selector, String selectorDescription,
+                                         PassAction action, String actor) {
+        Instant at = Instant.now();
+        TransitionResult result = transitionEngine.apply(selector, action, actor, at);
+
+        switch (result.getOutcome()) {
+            case NOT_FOUND:
+                throw new PassNotFoundException("Pass not found with " + selectorDescription);
+            case ALREADY_DONE:
+                passMetrics.duplicateScan(action, PassMetrics.SOURCE_ONLINE);
+                throw new PassAlreadyVerifiedException(action.getAlreadyDoneMessage());
+            default:
+                passCache.put(result.getPass());
+                statsService.onTransition(eventId, action, actor);
+                throughputService.onTransition(eventId, action, actor, at);
+                dashboardFeed.publish(toEvent(eventType(action), result.getPass(), actor, at));
+                return mapToResponse(result.getPass());
+        }
+    }
+
+    public PageResponse<PassResponse> getAllPasses(String eventId, PassFieldSet fields, String cursor,
+                                                   Integer limit, String sort, String direction) {
+        return toResponsePage(passPager.page(Criteria.where("event_id").is(eventId), fields.getFields(),
+                cursor, limit, sort, direction));
+    }
+
+    public PageResponse<PassResponse> getFilteredPasses(String eventId, Boolean entryVerified, Boolean goodiesGiven,
+                                                        String verifiedBy, String goodiesGivenBy, String college,
+                                                        PassFieldSet fields, String cursor, Integer limit,
+                                                        String sort, String direction) {
+        Criteria filter = filterCriteria(eventId, entryVerified, goodiesGiven, verifiedBy, goodiesGivenBy, college);
+        return passMetrics.record(PassMetrics.FILTER,
+                () -> toResponsePage(passPager.page(filter, fields.getFields(), cursor, limit, sort, direction)));
+    }
+
+    // Shared with PassExportService, so an export contains exactly what the filter pages through
+    static Criteria filterCriteria(String eventId, Boolean entryVerified, Boolean goodiesGiven,
+                                   String verifiedBy, String goodiesGivenBy, String college) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("event_id").is(eventId));
         
         if (entryVerified != null) {
-            query.addCriteria(Criteria.where("entry_verified").is(entryVerified));
+            criteria.add(Criteria.where("entry_verified").is(entryVerified));
         }
         
         if (goodiesGiven != null) {
-            query.addCriteria(Criteria.where("goodies_given").is(goodiesGiven));
+            criteria.add(Criteria.where("goodies_given").is(goodiesGiven));
         }
         
         if (verifiedBy != null && !verifiedBy.isEmpty()) {
-            query.addCriteria(Criteria.where("verified_by").is(verifiedBy));
+            criteria.add(Criteria.where("verified_by").is(verifiedBy));
         }
         
         if (goodiesGivenBy != null && !goodiesGivenBy.isEmpty()) {
-            query.addCriteria(Criteria.where("goodies_given_by").is(goodiesGivenBy));
+            criteria.add(Criteria.where("goodies_given_by").is(goodiesGivenBy));
         }
         
-        if (college != null && !college.isEmpty()) {
-            query.addCriteria(Criteria.where("college").regex(college, "i"));
+        String collegePrefix = PassSearchKeys.collegePrefixPattern(college);
+        if (collegePrefix != null) {
+            criteria.add(Criteria.where("college_key").regex(collegePrefix));
         }
         
-        List<Pass> passes = mongoTemplate.find(query, Pass.class);
-        
-        return passes.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return new Criteria().andOperator(criteria);
     }
 
-    public StatsResponse getStats() {
-        List<Pass> allPasses = passRepository.findAll();
-        
-        // Total counts
-        long totalPasses = allPasses.size();
-        long totalEntriesVerified = allPasses.stream()
-                .filter(p -> Boolean.TRUE.equals(p.getEntryVerified()))
-                .count();
-        long totalGoodiesGiven = allPasses.stream()
-                .filter(p -> Boolean.TRUE.equals(p.getGoodiesGiven()))
-                .count();
-        
-        // College statistics
-        Map<String, Long> collegeCountMap = allPasses.stream()
-                .filter(p -> p.getCollege() != null && !p.getCollege().isEmpty())
-                .collect(Collectors.groupingBy(Pass::getCollege, Collectors.counting()));
-        
-        List<StatsResponse.CollegeStats> colleges = collegeCountMap.entrySet().stream()
-                .map(entry -> StatsResponse.CollegeStats.builder()
-                        .collegeName(entry.getKey())
-                        .count(entry.getValue())
-                        .build())
-                .sorted(Comparator.comparing(StatsResponse.CollegeStats::getCount).reversed())
-                .collect(Collectors.toList());
-        
-        // Entries verified by
-        Map<String, Long> entriesVerifiedBy = allPasses.stream()
-                .filter(p -> p.getVerifiedBy() != null && !p.getVerifiedBy().isEmpty())
-                .collect(Collectors.groupingBy(Pass::getVerifiedBy, Collectors.counting()));
-        
-        String mostEntriesVerifiedBy = entriesVerifiedBy.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
-        
-        // Goodies given by
-        Map<String, Long> goodiesGivenBy = allPasses.stream()
-                .filter(p -> p.getGoodiesGivenBy() != null && !p.getGoodiesGivenBy().isEmpty())
-                .collect(Collectors.groupingBy(Pass::getGoodiesGivenBy, Collectors.counting()));
-        
-        String mostGoodiesGivenBy = goodiesGivenBy.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
-        
-        return StatsResponse.builder()
-                .totalPasses(totalPasses)
-                .totalEntriesVerified(totalEntriesVerified)
-                .totalGoodiesGiven(totalGoodiesGiven)
-                .colleges(colleges)
-                .entriesVerifiedBy(entriesVerifiedBy)
-                .goodiesGivenBy(goodiesGivenBy)
-                .mostEntriesVerifiedBy(mostEntriesVerifiedBy)
-                .mostGoodiesGivenBy(mostGoodiesGivenBy)
+    public SyncResponse getChangesSince(String eventId, String since, Integer limit) {
+        return syncService.changesSince(eventId, since, limit);
+    }
+
+    public SseEmitter subscribeToDashboard(String eventId) {
+        return dashboardFeed.subscribe(eventId);
+    }
+
+    // Must be read before the query it tags: a write landing in between then leaves a tag that is
+    // already stale, never a current tag on an outdated body. Weak, since compression changes the bytes.
+    public String getDataVersionTag(String eventId) {
+        return versionTag(statsService.currentVersion(eventId));
+    }
+
+    static String versionTag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    public StatsResponse getStats(String eventId) {
+        return passMetrics.record(PassMetrics.STATS, () -> statsService.getStats(eventId));
+    }
+
+    public StatsResponse rebuildStats(String eventId) {
+        statsService.rebuild(eventId);
+        return statsService.getStats(eventId);
+    }
+
+    // Mints signed codes for passes created before signing was enabled, or with rotate, re-signs every
+    // code not signed by the active key. Old printed codes keep working until their key is removed.
+    public SignPassCodesResponse signPassCodes(String eventId, boolean rotate) {
+        if (!passCodeSigner.isEnabled()) {
+            return SignPassCodesResponse.builder().signed(0L).build();
+        }
+        Query unsigned = Query.query(new Criteria().andOperator(Criteria.where("event_id").is(eventId), rotate
+                ? Criteria.where("signed_pass_code").not().regex(passCodeSigner.activeCodePattern(eventId))
+                : Criteria.where("signed_pass_code").exists(false)));
+        unsigned.fields().include("pass_code");
+
+        BulkOperations operations = null;
+        List<String> pending = new ArrayList<>(SIGN_BATCH_SIZE);
+        long signed = 0;
+        try (Stream<Document> passes = mongoTemplate.stream(unsigned, Document.class,
+                mongoTemplate.getCollectionName(Pass.class))) {
+            for (Document pass : (Iterable<Document>) passes::iterator) {
+                String passCode = pass.getString("pass_code");
+                if (operations == null) {
+                    operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pass.class);
+                }
+                operations.updateOne(Query.query(Criteria.where("_id").is(pass.get("_id"))), new Update()
+                        .set("signed_pass_code", passCodeSigner.sign(eventId, passCode))
+                        .currentDate("updated_at"));
+                pending.add(passCode);
+                if (pending.size() == SIGN_BATCH_SIZE) {
+                    signed += operations.execute().getModifiedCount();
+                    pending.forEach(code -> passCache.evictByCode(eventId, code));
+                    operations = null;
+                    pending.clear();
+                }
+            }
+        }
+        if (operations != null) {
+            signed += operations.execute().getModifiedCount();
+            pending.forEach(code -> passCache.evictByCode(eventId, code));
+        }
+        if (signed > 0) {
+            statsService.onUpdated(eventId);
+            log.info("Signed pass codes of {} passes of event {} with key {}", signed, eventId,
+                    passCodeSigner.getActiveKeyId());
+        }
+        return SignPassCodesResponse.builder()
+                .keyId(passCodeSigner.getActiveKeyId())
+                .signed(signed)
                 .build();
     }
 
-    public void deletePass(String id) {
-        if (!passRepository.existsById(id)) {
+    public void deletePass(String eventId, String id) {
+        Pass deleted = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("event_id").is(eventId).and("_id").is(id)), Pass.class);
+        if (deleted == null) {
             throw new PassNotFoundException("Pass not found with id: " + id);
         }
-        passRepository.deleteById(id);
+        passCache.evictByCode(eventId, deleted.getPassCode());
+        passCodeFilter.removed();
+        syncService.recordDeletion(deleted);
+        dashboardFeed.publish(toEvent(PassEvent.Type.DELETED, deleted, null, Instant.now()));
+        statsService.onDeleted(deleted);
+    }
+
+    PassEvent.Type eventType(PassAction action) {
+        return action == PassAction.ENTRY ? PassEvent.Type.ENTRY_VERIFIED : PassEvent.Type.GOODIES_GIVEN;
+    }
+
+    PassEvent toEvent(PassEvent.Type type, Pass pass, String actor, Instant at) {
+        return PassEvent.builder()
+                .type(type)
+                .eventId(pass.getEventId())
+                .passId(pass.getId())
+                .passCode(pass.getPassCode())
+                .teamName(pass.getTeamName())
+                .actor(actor)
+                .at(at)
+                .build();
+    }
+
+    private PageResponse<PassResponse> toResponsePage(PageResponse<Pass> page) {
+        return PageResponse.<PassResponse>builder()
+                .items(page.getItems().stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .limit(page.getLimit())
+                .sort(page.getSort())
+                .direction(page.getDirection())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.getHasMore())
+                .build();
     }
 
-    private PassResponse mapToResponse(Pass pass) {
+    PassResponse mapToResponse(Pass pass) {
         return PassResponse.builder()
                 .id(pass.getId())
+                .eventId(pass.getEventId())
                 .teamId(pass.getTeamId())
                 .teamName(pass.getTeamName())
                 .name(pass.getName())
@@ -202,6 +450,7 @@ public class PassService {
                 .unstopReportUrl(pass.getUnstopReportUrl())
                 .pptUrl(pass.getPptUrl())
                 .passCode(pass.getPassCode())
+                .signedPassCode(pass.getSignedPassCode())
                 .entryVerified(pass.getEntryVerified())
                 .goodiesGiven(pass.getGoodiesGiven())
                 .verifiedBy(pass.getVerifiedBy())
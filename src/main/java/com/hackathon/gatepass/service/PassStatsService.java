@@ -0,0 +1,346 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassStats;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class PassStatsService {
+
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration rebuildSettle;
+
+    public PassStatsService(MongoTemplate mongoTemplate,
+                            @Value("${stats.rebuild-settle}") Duration rebuildSettle) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildSettle = rebuildSettle;
+    }
+
+    public void onCreated(Pass pass) {
+        onCreated(List.of(pass));
+    }
+
+    public void onCreated(Collection<Pass> passes) {
+        passes.stream()
+                .collect(Collectors.groupingBy(Pass::getEventId))
+                .forEach((eventId, created) -> {
+                    Update update = versionUpdate().inc("total_passes", (long) created.size());
+                    created.stream()
+                            .map(Pass::getCollege)
+                            .filter(college -> college != null && !college.isEmpty())
+                            .collect(Collectors.groupingBy(college -> college, Collectors.counting()))
+                            .forEach((college, count) -> incKey(update, "colleges", college, count));
+                    apply(eventId, update);
+                });
+    }
+
+    public void onTransition(String eventId, PassAction action, String actor) {
+        apply(eventId, transitionUpdate(action, actor));
+    }
+
+    // Also applied by ReactivePassService through ReactiveMongoTemplate
+    Update transitionUpdate(PassAction action, String actor) {
+        Update update = versionUpdate();
+        if (action == PassAction.ENTRY) {
+            update.inc("entries_verified", 1L);
+            incKey(update, "entries_verified_by", actor, 1L);
+        } else {
+            update.inc("goodies_given", 1L);
+            incKey(update, "goodies_given_by", actor, 1L);
+        }
+        return update;
+    }
+
+    public void onTransitions(String eventId, Collection<TransitionCommand> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        // Update holds one value per key, so repeated actors are summed before building the $inc
+        Update update = versionUpdate();
+        applied.stream()
+                .collect(Collectors.groupingBy(TransitionCommand::getAction, Collectors.counting()))
+                .forEach((action, count) -> update.inc(
+                        action == PassAction.ENTRY ? "entries_verified" : "goodies_given", count));
+        applied.stream()
+                .collect(Collectors.groupingBy(TransitionCommand::getAction,
+                        Collectors.groupingBy(TransitionCommand::getActor, Collectors.counting())))
+                .forEach((action, byActor) -> byActor.forEach((actor, count) -> incKey(update,
+                        action == PassAction.ENTRY ? "entries_verified_by" : "goodies_given_by", actor, count)));
+        apply(eventId, update);
+    }
+
+    public void onDeleted(Pass pass) {
+        Update update = versionUpdate().inc("total_passes", -1L);
+        incKey(update, "colleges", pass.getCollege(), -1L);
+        if (Boolean.TRUE.equals(pass.getEntryVerified())) {
+            update.inc("entries_verified", -1L);
+        }
+        if (Boolean.TRUE.equals(pass.getGoodiesGiven())) {
+            update.inc("goodies_given", -1L);
+        }
+        incKey(update, "entries_verified_by", pass.getVerifiedBy(), -1L);
+        incKey(update, "goodies_given_by", pass.getGoodiesGivenBy(), -1L);
+        apply(pass.getEventId(), update);
+    }
+
+    // Edits that change no counter still change what list responses contain
+    public void onUpdated(String eventId) {
+        apply(eventId, versionUpdate());
+    }
+
+    // Bumped by every counter update, so it changes whenever any pass of the event is created, verified
+    // or deleted on any instance. Responses derived from the event's passes or stats use it as their ETag.
+    public long currentVersion(String eventId) {
+        return version(mongoTemplate.findOne(versionQuery(eventId), Document.class,
+                mongoTemplate.getCollectionName(PassStats.class)));
+    }
+
+    static Query versionQuery(String eventId) {
+        Query query = Query.query(Criteria.where("_id").is(eventId));
+        query.fields().include("version");
+        return query;
+    }
+
+    long version(Document stats) {
+        return count(stats, "version");
+    }
+
+    public StatsResponse getStats(String eventId) {
+        PassStats stats = mongoTemplate.findById(eventId, PassStats.class);
+        if (stats == null) {
+            stats = rebuild(eventId);
+        }
+        return toResponse(stats);
+    }
+
+    StatsResponse toResponse(PassStats stats) {
+        List<StatsResponse.CollegeStats> colleges = decode(stats.getColleges()).entrySet().stream()
+                .map(entry -> StatsResponse.CollegeStats.builder()
+                        .collegeName(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .sorted(Comparator.comparing(StatsResponse.CollegeStats::getCount).reversed())
+                .collect(Collectors.toList());
+
+        Map<String, Long> entriesVerifiedBy = decode(stats.getEntriesVerifiedBy());
+        Map<String, Long> goodiesGivenBy = decode(stats.getGoodiesGivenBy());
+
+        return StatsResponse.builder()
+                .totalPasses(stats.getTotalPasses())
+                .totalEntriesVerified(stats.getEntriesVerified())
+                .totalGoodiesGiven(stats.getGoodiesGiven())
+                .colleges(colleges)
+                .entriesVerifiedBy(entriesVerifiedBy)
+                .goodiesGivenBy(goodiesGivenBy)
+                .mostEntriesVerifiedBy(topKey(entriesVerifiedBy))
+                .mostGoodiesGivenBy(topKey(goodiesGivenBy))
+                .build();
+    }
+
+    // Counter updates are not transactional with the pass writes, so drift is
+    // corrected by recomputing everything server-side on a schedule.
+    @Scheduled(cron = "${stats.reconcile-cron}")
+    public void rebuildAll() {
+        Set<String> eventIds = new TreeSet<>(mongoTemplate.findDistinct(
+                new Query(), "event_id", Pass.class, String.class));
+        // Events whose last pass was deleted still have counters to bring back to zero
+        eventIds.addAll(mongoTemplate.findDistinct(new Query(), "_id", PassStats.class, String.class));
+        eventIds.forEach(this::rebuild);
+    }
+
+    // The counters are only replaced if their version is still the one read before aggregating;
+    // otherwise an increment landed meanwhile that the $set would wipe out, and the rebuild starts over.
+    // A pass write the aggregate already counted may still have its increment in flight, which would then
+    // land on top of the $set and count twice. So the rebuild waits rebuild-settle before the $set: such an
+    // increment moves the version within that window, and only one trailing its pass write by longer can
+    // still be counted twice, until the next rebuild.
+    public PassStats rebuild(String eventId) {
+        String collection = mongoTemplate.getCollectionName(PassStats.class);
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            Document current = mongoTemplate.findOne(versionQuery(eventId), Document.class, collection);
+            PassStats stats = aggregate(eventId);
+            if (current == null && stats.getTotalPasses() == 0) {
+                // Not stored, so stats or dashboard requests for unknown event ids leave nothing to reconcile
+                return stats;
+            }
+            if (!settle()) {
+                break;
+            }
+            if (replace(eventId, current, stats, collection)) {
+                log.info("Rebuilt pass stats of event {}: {} passes, {} entries verified, {} goodies given",
+                        eventId, stats.getTotalPasses(), stats.getEntriesVerified(), stats.getGoodiesGiven());
+                return stats;
+            }
+        }
+        log.warn("Gave up rebuilding pass stats of event {} after {} attempts, counters kept changing",
+                eventId, REBUILD_ATTEMPTS);
+        PassStats stored = mongoTemplate.findById(eventId, PassStats.class);
+        return stored != null ? stored : aggregate(eventId);
+    }
+
+    boolean settle() {
+        try {
+            Thread.sleep(rebuildSettle.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private PassStats aggregate(String eventId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("event_id").is(eventId)),
+                Aggregation.facet(Aggregation.group()
+                                .count().as("total")
+                                .sum(ConditionalOperators.when(Criteria.where("entry_verified").is(true))
+                                        .then(1).otherwise(0)).as("entries")
+                                .sum(ConditionalOperators.when(Criteria.where("goodies_given").is(true))
+                                        .then(1).otherwise(0)).as("goodies")).as("totals")
+                        .and(Aggregation.match(Criteria.where("college").nin(null, "")),
+                                Aggregation.group("college").count().as("count")).as("colleges")
+                        .and(Aggregation.match(Criteria.where("verified_by").nin(null, "")),
+                                Aggregation.group("verified_by").count().as("count")).as("verifiers")
+                        .and(Aggregation.match(Criteria.where("goodies_given_by").nin(null, "")),
+                                Aggregation.group("goodies_given_by").count().as("count")).as("givers"));
+
+        Document result = mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName(Pass.class), Document.class).getUniqueMappedResult();
+
+        Document totals = result == null ? null : result.getList("totals", Document.class).stream()
+                .findFirst().orElse(null);
+
+        return PassStats.builder()
+                .id(eventId)
+                .totalPasses(count(totals, "total"))
+                .entriesVerified(count(totals, "entries"))
+                .goodiesGiven(count(totals, "goodies"))
+                .colleges(encodeGroups(result, "colleges"))
+                .entriesVerifiedBy(encodeGroups(result, "verifiers"))
+                .goodiesGivenBy(encodeGroups(result, "givers"))
+                .rebuiltAt(Instant.now())
+                .build();
+    }
+
+    // Updated in place rather than saved so the version keeps counting across rebuilds
+    private boolean replace(String eventId, Document current, PassStats stats, String collection) {
+        if (current == null) {
+            try {
+                stats.setVersion(1L);
+                mongoTemplate.insert(stats);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                // A counter update created the document first
+                return false;
+            }
+        }
+        Object version = current.get("version");
+        Query unchanged = Query.query(Criteria.where("_id").is(eventId).andOperator(version != null
+                ? Criteria.where("version").is(version)
+                : Criteria.where("version").exists(false)));
+        Update update = versionUpdate()
+                .set("total_passes", stats.getTotalPasses())
+                .set("entries_verified", stats.getEntriesVerified())
+                .set("goodies_given", stats.getGoodiesGiven())
+                .set("colleges", stats.getColleges())
+                .set("entries_verified_by", stats.getEntriesVerifiedBy())
+                .set("goodies_given_by", stats.getGoodiesGivenBy())
+                .set("rebuilt_at", stats.getRebuiltAt());
+        return mongoTemplate.updateFirst(unchanged, update, collection).getMatchedCount() > 0;
+    }
+
+    // Also applied by ReactivePassService. Sent on its own when a counter update fails, so the ETags
+    // handed out before the write that was not counted still go stale.
+    Update versionUpdate() {
+        return new Update().inc("version", 1L);
+    }
+
+    private void apply(String eventId, Update update) {
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(eventId)), update,
+                    mongoTemplate.getCollectionName(PassStats.class));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to update pass stats, counters will be corrected on next rebuild: {}",
+                    ex.getMessage());
+            bumpVersion(eventId);
+        }
+    }
+
+    private void bumpVersion(String eventId) {
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(eventId)), versionUpdate(),
+                    mongoTemplate.getCollectionName(PassStats.class));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to bump the stats version of event {}, its ETags stay valid until the next write: {}",
+                    eventId, ex.getMessage());
+        }
+    }
+
+    private void incKey(Update update, String field, String key, long delta) {
+        if (key != null && !key.isEmpty()) {
+            update.inc(field + "." + encodeKey(key), delta);
+        }
+    }
+
+    private Map<String, Long> encodeGroups(Document result, String facet) {
+        Map<String, Long> counts = new HashMap<>();
+        if (result != null) {
+            for (Document group : result.getList(facet, Document.class)) {
+                counts.put(encodeKey(group.getString("_id")), count(group, "count"));
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Long> decode(Map<String, Long> counts) {
+        if (counts == null) {
+            return new HashMap<>();
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .collect(Collectors.toMap(entry -> decodeKey(entry.getKey()), Map.Entry::getValue));
+    }
+
+    private String topKey(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    private long count(Document document, String field) {
+        Object value = document == null ? null : document.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static String encodeKey(String key) {
+        return key.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    private static String decodeKey(String key) {
+        return key.replace("%24", "$").replace("%2E", ".").replace("%25", "%");
+    }
+}
@@ -0,0 +1,184 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.SyncPass;
+import com.hackathon.gatepass.dto.SyncResponse;
+import com.hackathon.gatepass.exception.InvalidPageRequestException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassTombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class PassSyncService {
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration settleWindow;
+
+    public PassSyncService(MongoTemplate mongoTemplate,
+                           @Value("${pass-sync.settle-window}") Duration settleWindow) {
+        this.mongoTemplate = mongoTemplate;
+        this.settleWindow = settleWindow;
+    }
+
+    // Legacy passes, and any pass whose creation stamp was lost to a crash right after its insert
+    @PostConstruct
+    public void backfillUpdatedAt() {
+        long updated = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("updated_at").exists(false)),
+                new Update().currentDate("updated_at"),
+                Pass.class).getModifiedCount();
+        if (updated > 0) {
+            log.info("Backfilled updated_at on {} passes", updated);
+        }
+    }
+
+    // updated_at, deleted_at and the sync watermark all come from the MongoDB server clock, so skew
+    // between application nodes cannot stamp a write behind a watermark another node handed out.
+    // New passes are inserted without updated_at and stay out of sync until this stamps them.
+    public void stampCreated(String eventId, Collection<String> passCodes) {
+        if (passCodes.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("event_id").is(eventId).and("pass_code").in(passCodes)
+                        .and("updated_at").exists(false)),
+                new Update().currentDate("updated_at"),
+                Pass.class);
+    }
+
+    public void recordDeletion(Pass pass) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(pass.getId())),
+                new Update()
+                        .set("event_id", pass.getEventId())
+                        .set("pass_code", pass.getPassCode())
+                        .currentDate("deleted_at"),
+                PassTombstone.class);
+    }
+
+    public SyncResponse changesSince(String eventId, String token, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Instant now = serverTime();
+        // Writes stamped just before "now" may not be visible yet; holding back a short
+        // window keeps a concurrent write from landing behind the returned watermark.
+        Instant upper = now.minus(settleWindow);
+
+        SyncToken from = token == null || token.isEmpty() ? null : SyncToken.decode(token);
+        if (from != null && from.time.isBefore(now.minus(PassTombstone.RETENTION))) {
+            return SyncResponse.builder().resetRequired(true).build();
+        }
+
+        Criteria window = Criteria.where("event_id").is(eventId).and("updated_at").lte(upper);
+        Criteria criteria = from == null ? window : new Criteria().andOperator(window, from.after());
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "updated_at", "_id"))
+                .limit(pageSize + 1);
+        query.fields().include("passCode", "signedPassCode", "teamName", "name", "college",
+                "entryVerified", "goodiesGiven", "updatedAt");
+
+        List<Pass> passes = mongoTemplate.find(query, Pass.class);
+        boolean hasMore = passes.size() > pageSize;
+        if (hasMore) {
+            passes = passes.subList(0, pageSize);
+        }
+
+        Pass last = hasMore ? passes.get(passes.size() - 1) : null;
+        SyncToken next = last != null ? new SyncToken(last.getUpdatedAt(), last.getId()) : new SyncToken(upper, null);
+
+        List<String> deleted = List.of();
+        if (from != null) {
+            Query tombstones = Query.query(Criteria.where("event_id").is(eventId)
+                    .and("deleted_at").gt(from.time).lte(next.time));
+            tombstones.fields().include("id");
+            deleted = mongoTemplate.find(tombstones, PassTombstone.class).stream()
+                    .map(PassTombstone::getId)
+                    .collect(Collectors.toList());
+        }
+
+        return SyncResponse.builder()
+                .changes(passes.stream().map(this::toSyncPass).collect(Collectors.toList()))
+                .deleted(deleted)
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // isMaster rather than hello: every server version still answers it and reports localTime the same way
+    private Instant serverTime() {
+        return mongoTemplate.executeCommand(new Document("isMaster", 1)).getDate("localTime").toInstant();
+    }
+
+    private SyncPass toSyncPass(Pass pass) {
+        return SyncPass.builder()
+                .id(pass.getId())
+                .passCode(pass.getPassCode())
+                .signedPassCode(pass.getSignedPassCode())
+                .teamName(pass.getTeamName())
+                .name(pass.getName())
+                .college(pass.getCollege())
+                .entryVerified(pass.getEntryVerified())
+                .goodiesGiven(pass.getGoodiesGiven())
+                .build();
+    }
+
+    private static class SyncToken {
+        private final Instant time;
+        private final String id;
+
+        SyncToken(Instant time, String id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        Criteria after() {
+            if (id == null) {
+                return Criteria.where("updated_at").gt(time);
+            }
+            return new Criteria().orOperator(
+                    Criteria.where("updated_at").gt(time),
+                    new Criteria().andOperator(
+                            Criteria.where("updated_at").is(time),
+                            Criteria.where("_id").gt(new ObjectId(id))));
+        }
+
+        String encode() {
+            String raw = time.toEpochMilli() + "|" + (id == null ? "" : id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SyncToken decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                        .split("\\|", -1);
+                String id = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
+                if (parts.length != 2 || (id != null && !ObjectId.isValid(id))) {
+                    throw new InvalidPageRequestException("Invalid sync token");
+                }
+                return new SyncToken(Instant.ofEpochMilli(Long.parseLong(parts[0])), id);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidPageRequestException("Invalid sync token");
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.ThroughputResponse;
+import com.hackathon.gatepass.exception.InvalidPageRequestException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassThroughput;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Per-minute counters of entries and goodies by verifier, bumped alongside the stats counters on
+// every transition. A throughput query reads only the buckets of its time range.
+@Slf4j
+@Service
+public class PassThroughputService {
+
+    private static final int MAX_INTERVAL_MINUTES = 1440;
+    private static final int REBUILD_ATTEMPTS = 5;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration defaultRange;
+    private final Duration maxRange;
+    private final Duration rebuildSettle;
+
+    public PassThroughputService(MongoTemplate mongoTemplate,
+                                 @Value("${throughput.default-range}") Duration defaultRange,
+                                 @Value("${throughput.max-range}") Duration maxRange,
+                                 @Value("${throughput.rebuild-settle}") Duration rebuildSettle) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultRange = defaultRange;
+        this.maxRange = maxRange;
+        this.rebuildSettle = rebuildSettle;
+    }
+
+    public void onTransition(String eventId, PassAction action, String actor, Instant at) {
+        try {
+            mongoTemplate.upsert(bucketQuery(eventId, action, actor, at), bucketUpdate(1L), PassThroughput.class);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to update throughput counters, they will be corrected by a rebuild: {}",
+                    ex.getMessage());
+        }
+    }
+
+    // Batch items carry their scan time, so one batch may touch several minutes and verifiers
+    public void onTransitions(String eventId, Collection<TransitionCommand> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Long> counts = applied.stream()
+                .collect(Collectors.groupingBy(command -> new BucketKey(command.getAction(), command.getActor(),
+                        minuteOf(command.getAt())), Collectors.counting()));
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PassThroughput.class);
+        counts.forEach((key, count) ->
+                operations.upsert(bucketQuery(eventId, key.action, key.actor, key.minute), bucketUpdate(count)));
+        try {
+            operations.execute();
+        } catch (DataAccessException ex) {
+            log.warn("Failed to update throughput counters, they will be corrected by a rebuild: {}",
+                    ex.getMessage());
+        }
+    }
+
+    // Also applied by ReactivePassService through ReactiveMongoTemplate. The query covers the whole
+    // unique index, so MongoDB retries the upsert itself when two instances create the bucket at once.
+    static Query bucketQuery(String eventId, PassAction action, String actor, Instant at) {
+        return Query.query(Criteria.where("event_id").is(eventId)
+                .and("action").is(action.name())
+                .and("minute").is(minuteOf(at))
+                .and("actor").is(actor));
+    }
+
+    static Update bucketUpdate(long count) {
+        return new Update().inc("count", count).inc("version", 1L);
+    }
+
+    private static Instant minuteOf(Instant at) {
+        return at.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    public ThroughputResponse getThroughput(String eventId, String action, String from, String to,
+                                            Integer intervalMinutes) {
+        PassAction passAction = parseAction(action);
+        int interval = intervalMinutes == null ? 1 : intervalMinutes;
+        if (interval < 1 || interval > MAX_INTERVAL_MINUTES) {
+            throw new InvalidPageRequestException(
+                    "interval must be between 1 and " + MAX_INTERVAL_MINUTES + " minutes");
+        }
+        Instant end = to == null ? Instant.now() : parseTime("to", to);
+        Instant start = minuteOf(from == null ? end.minus(defaultRange) : parseTime("from", from));
+        if (!start.isBefore(end)) {
+            throw new InvalidPageRequestException("from must be before to");
+        }
+        if (Duration.between(start, end).compareTo(maxRange) > 0) {
+            throw new InvalidPageRequestException("Time range may not exceed " + maxRange.toMinutes() + " minutes");
+        }
+
+        Query query = Query.query(Criteria.where("event_id").is(eventId)
+                        .and("action").is(passAction.name())
+                        .and("minute").gte(start).lt(end))
+                .with(Sort.by(Sort.Direction.ASC, "minute"));
+        query.fields().include("minute").include("actor").include("count").exclude("_id");
+
+        Map<Instant, Long> minutes = new TreeMap<>();
+        Map<String, Map<Instant, Long>> minutesByActor = new HashMap<>();
+        try (Stream<PassThroughput> buckets = mongoTemplate.stream(query, PassThroughput.class)) {
+            buckets.forEach(bucket -> {
+                minutes.merge(bucket.getMinute(), bucket.getCount(), Long::sum);
+                minutesByActor.computeIfAbsent(bucket.getActor(), actor -> new TreeMap<>())
+                        .merge(bucket.getMinute(), bucket.getCount(), Long::sum);
+            });
+        }
+
+        long total = sum(minutes);
+        long rangeMinutes = Math.max(1, (Duration.between(start, end).toSeconds() + 59) / 60);
+        List<ThroughputResponse.VerifierThroughput> verifiers = minutesByActor.entrySet().stream()
+                .map(entry -> {
+                    long verifierTotal = sum(entry.getValue());
+                    return ThroughputResponse.VerifierThroughput.builder()
+                            .verifier(entry.getKey())
+                            .total(verifierTotal)
+                            .activeMinutes((long) entry.getValue().size())
+                            .averagePerActiveMinute(rate(verifierTotal, entry.getValue().size()))
+                            .peakMinute(peak(entry.getValue()))
+                            .series(series(entry.getValue(), start, interval))
+                            .build();
+                })
+                .sorted(Comparator.comparing(ThroughputResponse.VerifierThroughput::getTotal).reversed()
+                        .thenComparing(ThroughputResponse.VerifierThroughput::getVerifier,
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+
+        return ThroughputResponse.builder()
+                .action(passAction)
+                .from(start)
+                .to(end)
+                .intervalMinutes(interval)
+                .total(total)
+                .averagePerMinute(rate(total, rangeMinutes))
+                .peakMinute(peak(minutes))
+                .series(series(minutes, start, interval))
+                .verifiers(verifiers)
+                .build();
+    }
+
+    // Recounts the event's buckets from the passes' timestamps, for scans made before the counters
+    // existed or counter updates that failed. Passes deleted since their scan drop out of the counts.
+    // Like the stats rebuild, each bucket is only overwritten if its version is still the one read
+    // before counting; otherwise a scan landed meanwhile that the $set would wipe out, and it starts over.
+    // It also waits rebuild-settle before writing, so the increment of a scan the recount already saw
+    // lands first and moves the version, instead of landing on top of the $set and counting twice.
+    public long rebuild(String eventId) {
+        Map<BucketKey, Long> counts = Map.of();
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            Map<BucketKey, Long> versions = storedVersions(eventId);
+            counts = recount(eventId);
+            if (!settle()) {
+                break;
+            }
+            if (replace(eventId, versions, counts)) {
+                long transitions = total(counts);
+                log.info("Rebuilt throughput counters of event {}: {} transitions in {} buckets",
+                        eventId, transitions, counts.size());
+                return transitions;
+            }
+        }
+        // Each bucket is guarded on its own, so only the ones scans kept changing still hold their live counts
+        log.warn("Gave up rebuilding throughput counters of event {} after {} attempts, some buckets kept changing",
+                eventId, REBUILD_ATTEMPTS);
+        return total(counts);
+    }
+
+    boolean settle() {
+        try {
+            Thread.sleep(rebuildSettle.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Buckets written before versions existed map to null
+    private Map<BucketKey, Long> storedVersions(String eventId) {
+        Query query = Query.query(Criteria.where("event_id").is(eventId));
+        query.fields().include("action").include("minute").include("actor").include("version");
+        Map<BucketKey, Long> versions = new HashMap<>();
+        try (Stream<PassThroughput> buckets = mongoTemplate.stream(query, PassThroughput.class)) {
+            buckets.forEach(bucket -> versions.put(
+                    new BucketKey(bucket.getAction(), bucket.getActor(), bucket.getMinute()), bucket.getVersion()));
+        }
+        return versions;
+    }
+
+    private Map<BucketKey, Long> recount(String eventId) {
+        Query query = Query.query(Criteria.where("event_id").is(eventId)
+                .orOperator(Criteria.where("entry_verified").is(true), Criteria.where("goodies_given").is(true)));
+        query.fields().include("entry_verified_at").include("verified_by")
+                .include("goodies_given_at").include("goodies_given_by");
+
+        Map<BucketKey, Long> counts = new HashMap<>();
+        try (Stream<Pass> passes = mongoTemplate.stream(query, Pass.class)) {
+            passes.forEach(pass -> {
+                count(counts, PassAction.ENTRY, pass.getVerifiedBy(), pass.getEntryVerifiedAt());
+                count(counts, PassAction.GOODIES, pass.getGoodiesGivenBy(), pass.getGoodiesGivenAt());
+            });
+        }
+        return counts;
+    }
+
+    // One unordered bulk write: existing buckets get their count $set, new ones are inserted and
+    // buckets no pass accounts for any more are removed, each guarded by the version read before.
+    // A new bucket that a scan created meanwhile fails its insert on the unique index.
+    private boolean replace(String eventId, Map<BucketKey, Long> versions, Map<BucketKey, Long> counts) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PassThroughput.class);
+        int updates = 0;
+        int removals = 0;
+        for (Map.Entry<BucketKey, Long> entry : counts.entrySet()) {
+            BucketKey key = entry.getKey();
+            if (versions.containsKey(key)) {
+                operations.updateOne(versionQuery(eventId, key, versions.get(key)),
+                        new Update().set("count", entry.getValue()).inc("version", 1L));
+                updates++;
+            } else {
+                operations.insert(PassThroughput.builder()
+                        .eventId(eventId)
+                        .action(key.action)
+                        .minute(key.minute)
+                        .actor(key.actor)
+                        .count(entry.getValue())
+                        .version(1L)
+                        .build());
+            }
+        }
+        for (Map.Entry<BucketKey, Long> entry : versions.entrySet()) {
+            if (!counts.containsKey(entry.getKey())) {
+                operations.remove(versionQuery(eventId, entry.getKey(), entry.getValue()));
+                removals++;
+            }
+        }
+        if (counts.isEmpty() && versions.isEmpty()) {
+            return true;
+        }
+
+        try {
+            BulkWriteResult result = operations.execute();
+            return result.getMatchedCount() == updates && result.getDeletedCount() == removals;
+        } catch (BulkOperationException ex) {
+            if (ex.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR)) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private static Query versionQuery(String eventId, BucketKey key, Long version) {
+        Query query = bucketQuery(eventId, key.action, key.actor, key.minute);
+        query.addCriteria(version != null
+                ? Criteria.where("version").is(version)
+                : Criteria.where("version").exists(false));
+        return query;
+    }
+
+    private static long total(Map<BucketKey, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static void count(Map<BucketKey, Long> counts, PassAction action, String actor, Instant at) {
+        if (at != null) {
+            counts.merge(new BucketKey(action, actor, minuteOf(at)), 1L, Long::sum);
+        }
+    }
+
+    private static PassAction parseAction(String action) {
+        try {
+            return PassAction.fromValue(action);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageRequestException("Unsupported action: " + action + " (use entry or goodies)");
+        }
+    }
+
+    private static Instant parseTime(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidPageRequestException(name + " must be an ISO-8601 instant such as 2024-01-15T10:30:00Z");
+        }
+    }
+
+    // Intervals are counted from the start of the range, so the first one is never partial
+    private static List<ThroughputResponse.Bucket> series(Map<Instant, Long> minutes, Instant start, int interval) {
+        Map<Instant, Long> buckets = new TreeMap<>();
+        minutes.forEach((minute, count) -> {
+            long offset = Duration.between(start, minute).toMinutes();
+            buckets.merge(start.plus(offset - offset % interval, ChronoUnit.MINUTES), count, Long::sum);
+        });
+        return buckets.entrySet().stream()
+                .map(entry -> bucket(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    // The earliest of equally busy minutes
+    private static ThroughputResponse.Bucket peak(Map<Instant, Long> minutes) {
+        Map.Entry<Instant, Long> peak = null;
+        for (Map.Entry<Instant, Long> entry : minutes.entrySet()) {
+            if (peak == null || entry.getValue() > peak.getValue()) {
+                peak = entry;
+            }
+        }
+        return peak == null ? null : bucket(peak.getKey(), peak.getValue());
+    }
+
+    private static ThroughputResponse.Bucket bucket(Instant start, long count) {
+        return ThroughputResponse.Bucket.builder().start(start).count(count).build();
+    }
+
+    private static long sum(Map<Instant, Long> minutes) {
+        return minutes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static double rate(long count, long minutes) {
+        return minutes == 0 ? 0 : Math.round(count * 100.0 / minutes) / 100.0;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class BucketKey {
+        private final PassAction action;
+        private final String actor;
+        private final Instant minute;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class PassTransitionEngine {
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransitionResult apply(Criteria selector, PassAction action, String actor, Instant at) {
+        Pass updated = mongoTemplate.findAndModify(
+                pendingQuery(selector, action),
+                transitionUpdate(action, actor, at),
+                FindAndModifyOptions.options().returnNew(true),
+                Pass.class);
+
+        if (updated != null) {
+            return TransitionResult.applied(updated);
+        }
+
+        // Only the rejection path pays for a second lookup to tell the two failures apart
+        return mongoTemplate.exists(Query.query(selector), Pass.class)
+                ? TransitionResult.alreadyDone()
+                : TransitionResult.notFound();
+    }
+
+    public List<TransitionResult> applyAll(List<TransitionCommand> commands) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pass.class);
+        for (TransitionCommand command : commands) {
+            operations.updateOne(
+                    pendingQuery(command.selector(), command.getAction()),
+                    transitionUpdate(command.getAction(), command.getActor(), command.getAt())
+                            .set(command.getAction().getOpField(), command.getOpId()));
+        }
+        operations.execute();
+
+        // The bulk result only carries aggregate counts, so one read-back of the touched passes
+        // attributes each write by the op id it stored. A replayed batch matches no pending pass and
+        // leaves the earlier op ids in place, so none of its items count as applied again.
+        List<Pass> passes = mongoTemplate.find(Query.query(new Criteria().orOperator(
+                commands.stream().map(TransitionCommand::selector).toArray(Criteria[]::new))), Pass.class);
+
+        List<TransitionResult> results = new ArrayList<>(commands.size());
+        for (TransitionCommand command : commands) {
+            Pass pass = passes.stream().filter(command::matches).findFirst().orElse(null);
+            if (pass == null) {
+                results.add(TransitionResult.notFound());
+            } else if (command.getOpId().equals(opId(pass, command.getAction()))) {
+                results.add(TransitionResult.applied(pass));
+            } else {
+                results.add(TransitionResult.alreadyDone(pass));
+            }
+        }
+        return results;
+    }
+
+    public Query pendingQuery(Criteria selector, PassAction action) {
+        return Query.query(new Criteria().andOperator(
+                selector,
+                Criteria.where(action.getFlagField()).ne(true)));
+    }
+
+    private static String opId(Pass pass, PassAction action) {
+        return action == PassAction.ENTRY ? pass.getEntryOpId() : pass.getGoodiesOpId();
+    }
+
+    public Update transitionUpdate(PassAction action, String actor, Instant at) {
+        return new Update()
+                .set(action.getFlagField(), true)
+                .set(action.getActorField(), actor)
+                .set(action.getTimestampField(), at)
+                .currentDate("updated_at");
+    }
+}
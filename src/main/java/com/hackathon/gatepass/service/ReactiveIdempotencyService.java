@@ -0,0 +1,108 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import com.hackathon.gatepass.model.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// IdempotencyService for the reactive profile; same reservation, storage and replay rules
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveIdempotencyService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final IdempotencyService idempotencyService;
+
+    public Mono<PassResponse> execute(String key, String request, Mono<PassResponse> call) {
+        if (key == null || key.isBlank()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            idempotencyService.validate(key);
+            IdempotencyRecord cached = idempotencyService.cached(key);
+            if (cached != null) {
+                return Mono.fromCallable(() -> idempotencyService.replay(cached, request));
+            }
+            Instant reservedAt = Instant.now();
+            return reserve(key, request, reservedAt).flatMap(reserved -> reserved
+                    ? run(key, request, reservedAt, call)
+                    : existing(key, request, reservedAt, call));
+        });
+    }
+
+    private Mono<PassResponse> existing(String key, String request, Instant reservedAt, Mono<PassResponse> call) {
+        return reactiveMongoTemplate.findById(key, IdempotencyRecord.class)
+                .switchIfEmpty(Mono.error(idempotencyService::inProgress))
+                .flatMap(existing -> takeOver(existing, request, reservedAt).flatMap(taken -> taken
+                        ? run(key, request, reservedAt, call)
+                        : Mono.fromCallable(() -> idempotencyService.replay(existing, request))));
+    }
+
+    private Mono<Boolean> reserve(String key, String request, Instant reservedAt) {
+        return reactiveMongoTemplate.insert(idempotencyService.pending(key, request, reservedAt))
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+    }
+
+    private Mono<Boolean> takeOver(IdempotencyRecord existing, String request, Instant reservedAt) {
+        if (!idempotencyService.canTakeOver(existing, request)) {
+            return Mono.just(false);
+        }
+        return reactiveMongoTemplate.updateFirst(idempotencyService.takeoverQuery(existing),
+                        idempotencyService.takeoverUpdate(reservedAt), IdempotencyRecord.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    private Mono<PassResponse> run(String key, String request, Instant reservedAt, Mono<PassResponse> call) {
+        idempotencyService.countFirst();
+        return call
+                .map(response -> idempotencyService.completion(key, request, reservedAt, response, null))
+                .onErrorResume(ex -> ex instanceof PassNotFoundException || ex instanceof PassAlreadyVerifiedException,
+                        ex -> Mono.just(idempotencyService.completion(key, request, reservedAt, null,
+                                (RuntimeException) ex)))
+                .onErrorResume(ex -> release(key, reservedAt).then(Mono.error(ex)))
+                .flatMap(completion -> store(completion)
+                        .flatMap(stored -> Mono.fromCallable(() -> idempotencyService.replay(stored, request)))
+                        .switchIfEmpty(Mono.fromCallable(() -> idempotencyService.result(completion))));
+    }
+
+    // Emits what another owner of the key stored when this reservation was taken over, empty otherwise
+    private Mono<IdempotencyRecord> store(IdempotencyRecord record) {
+        return reactiveMongoTemplate.updateFirst(
+                        idempotencyService.reservationQuery(record.getId(), record.getCreatedAt()),
+                        idempotencyService.completionUpdate(record), IdempotencyRecord.class)
+                .flatMap(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        idempotencyService.remember(record);
+                        return Mono.empty();
+                    }
+                    return reactiveMongoTemplate.findById(record.getId(), IdempotencyRecord.class);
+                })
+                .onErrorResume(DataAccessException.class, ex -> {
+                    log.warn("Failed to store result for Idempotency-Key {}: {}", record.getId(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> release(String key, Instant reservedAt) {
+        return reactiveMongoTemplate.remove(idempotencyService.reservationQuery(key, reservedAt),
+                        IdempotencyRecord.class)
+                .then()
+                .onErrorResume(DataAccessException.class, ex -> {
+                    log.warn("Failed to release Idempotency-Key {}: {}", key, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,182 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.DashboardUpdate;
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.dto.ScanActionRequest;
+import com.hackathon.gatepass.dto.StatsResponse;
+import com.hackathon.gatepass.dto.VerifyRequest;
+import com.hackathon.gatepass.exception.PassAlreadyVerifiedException;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassStats;
+import com.hackathon.gatepass.model.PassThroughput;
+import com.hackathon.gatepass.model.ScanAudit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+// Non-blocking versions of the gate-rush operations (scan lookup, scan-and-apply, verify, goodies, stats).
+// Queries, updates, caching, events and metrics are the ones PassService uses, only the Mongo calls differ.
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactivePassService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final PassService passService;
+    private final PassTransitionEngine transitionEngine;
+    private final PassCache passCache;
+    private final PassStatsService statsService;
+    private final DashboardFeed dashboardFeed;
+    private final PassMetrics passMetrics;
+    private final ScanAuditLog scanAuditLog;
+    private final PassCodeFilter passCodeFilter;
+
+    public Mono<PassResponse> getPassByCode(String eventId, String passCode) {
+        return recordScan(PassMetrics.SCAN_LOOKUP, ScanAudit.builder().eventId(eventId).passCode(passCode),
+                Mono.fromCallable(() -> passService.lookupCode(eventId, passCode)).flatMap(code ->
+                        Mono.justOrEmpty(passCache.getIfPresent(eventId, code))
+                                .switchIfEmpty(Mono.defer(() -> reactiveMongoTemplate
+                                        .findOne(Query.query(Criteria.where("event_id").is(eventId)
+                                                .and("pass_code").is(code)), Pass.class)
+                                        .doOnNext(passCache::put)))
+                                .switchIfEmpty(Mono.error(() -> {
+                                    passCodeFilter.falsePositive();
+                                    return new PassNotFoundException("Pass not found with code: " + code);
+                                }))
+                                .map(passService::mapToResponse)));
+    }
+
+    public Mono<PassResponse> verifyEntry(String eventId, String id, VerifyRequest request) {
+        return recordScan(PassMetrics.VERIFY_ENTRY,
+                PassService.audit(eventId, PassAction.ENTRY, request.getVerifiedBy()).passId(id),
+                applyTransition(eventId, Criteria.where("event_id").is(eventId).and("_id").is(id),
+                        "id: " + id, PassAction.ENTRY, request.getVerifiedBy()));
+    }
+
+    public Mono<PassResponse> giveGoodies(String eventId, String id, VerifyRequest request) {
+        return recordScan(PassMetrics.GIVE_GOODIES,
+                PassService.audit(eventId, PassAction.GOODIES, request.getVerifiedBy()).passId(id),
+                applyTransition(eventId, Criteria.where("event_id").is(eventId).and("_id").is(id),
+                        "id: " + id, PassAction.GOODIES, request.getVerifiedBy()));
+    }
+
+    public Mono<PassResponse> scanAndApply(String eventId, ScanActionRequest request) {
+        return recordScan(PassMetrics.SCAN_APPLY,
+                PassService.audit(eventId, request.getAction(), request.getVerifiedBy())
+                        .passCode(request.getPassCode()),
+                Mono.fromCallable(() -> passService.lookupCode(eventId, request.getPassCode())).flatMap(code ->
+                        applyTransition(eventId, Criteria.where("event_id").is(eventId).and("pass_code").is(code),
+                                "code: " + code, request.getAction(), request.getVerifiedBy())
+                                .doOnError(PassNotFoundException.class, ex -> passCodeFilter.falsePositive())));
+    }
+
+    private Mono<PassResponse> recordScan(String operation, ScanAudit.ScanAuditBuilder audit, Mono<PassResponse> call) {
+        return passMetrics.record(operation, scanAuditLog.record(
+                audit.operation(operation).source(PassMetrics.SOURCE_ONLINE), call));
+    }
+
+    public Mono<StatsResponse> getStats(String eventId) {
+        return passMetrics.record(PassMetrics.STATS, reactiveMongoTemplate
+                .findById(eventId, PassStats.class)
+                .map(statsService::toResponse)
+                // A missing counters document means a full rebuild, which stays on the blocking path
+                .switchIfEmpty(Mono.fromCallable(() -> statsService.getStats(eventId))
+                        .subscribeOn(Schedulers.boundedElastic())));
+    }
+
+    public Mono<String> getDataVersionTag(String eventId) {
+        return reactiveMongoTemplate.findOne(PassStatsService.versionQuery(eventId), Document.class,
+                        reactiveMongoTemplate.getCollectionName(PassStats.class))
+                .map(statsService::version)
+                .defaultIfEmpty(0L)
+                .map(PassService::versionTag);
+    }
+
+    public Flux<DashboardUpdate> subscribeToDashboard(String eventId) {
+        return dashboardFeed.stream(eventId);
+    }
+
+    private Mono<PassResponse> applyTransition(String eventId, Criteria selector, String selectorDescription,
+                                               PassAction action, String actor) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            return reactiveMongoTemplate.findAndModify(
+                            transitionEngine.pendingQuery(selector, action),
+                            transitionEngine.transitionUpdate(action, actor, now),
+                            FindAndModifyOptions.options().returnNew(true),
+                            Pass.class)
+                    .flatMap(pass -> {
+                        passCache.put(pass);
+                        return recordTransition(eventId, action, actor, now).then(Mono.fromCallable(() -> {
+                            dashboardFeed.publish(passService.toEvent(
+                                    passService.eventType(action), pass, actor, now));
+                            return passService.mapToResponse(pass);
+                        }));
+                    })
+                    // Only the rejection path pays for a second lookup to tell the two failures apart
+                    .switchIfEmpty(Mono.defer(() -> reactiveMongoTemplate.exists(Query.query(selector), Pass.class)
+                            .flatMap(exists -> {
+                                if (!exists) {
+                                    return Mono.error(new PassNotFoundException(
+                                            "Pass not found with " + selectorDescription));
+                                }
+                                passMetrics.duplicateScan(action, PassMetrics.SOURCE_ONLINE);
+                                return Mono.error(new PassAlreadyVerifiedException(action.getAlreadyDoneMessage()));
+                            })));
+        });
+    }
+
+    // The stats and throughput counters are independent, so both upserts are sent at once
+    private Mono<Void> recordTransition(String eventId, PassAction action, String actor, Instant at) {
+        Mono<Void> stats = reactiveMongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(eventId)),
+                        statsService.transitionUpdate(action, actor),
+                        reactiveMongoTemplate.getCollectionName(PassStats.class))
+                .then()
+                .onErrorResume(DataAccessException.class, ex -> {
+                    log.warn("Failed to update pass stats, counters will be corrected on next rebuild: {}",
+                            ex.getMessage());
+                    return bumpVersion(eventId);
+                });
+        Mono<Void> throughput = reactiveMongoTemplate.upsert(
+                        PassThroughputService.bucketQuery(eventId, action, actor, at),
+                        PassThroughputService.bucketUpdate(1L),
+                        PassThroughput.class)
+                .then()
+                .onErrorResume(DataAccessException.class, ex -> {
+                    log.warn("Failed to update throughput counters, they will be corrected by a rebuild: {}",
+                            ex.getMessage());
+                    return Mono.empty();
+                });
+        return Mono.when(stats, throughput);
+    }
+
+    // Best effort, so ETags issued before a transition the counters missed still go stale
+    private Mono<Void> bumpVersion(String eventId) {
+        return reactiveMongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(eventId)),
+                        statsService.versionUpdate(),
+                        reactiveMongoTemplate.getCollectionName(PassStats.class))
+                .then()
+                .onErrorResume(DataAccessException.class, ex -> {
+                    log.warn("Failed to bump the stats version of event {}, its ETags stay valid until the next write: {}",
+                            eventId, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
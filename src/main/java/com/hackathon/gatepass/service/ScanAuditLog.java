@@ -0,0 +1,168 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.model.ScanAudit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Scan requests only offer to a bounded queue; one writer thread drains whatever has accumulated
+// while the previous insert was in flight and writes it with a single insertMany. A full queue
+// drops the entry and counts it, so a slow or unavailable database never delays a gate response.
+@Slf4j
+@Component
+public class ScanAuditLog {
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<ScanAudit> queue;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ScanAuditLog(MongoTemplate mongoTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${scan-audit.enabled}") boolean enabled,
+                        @Value("${scan-audit.queue-capacity}") int queueCapacity,
+                        @Value("${scan-audit.batch-size}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = records(meterRegistry, "written");
+        this.dropped = records(meterRegistry, "dropped");
+        this.failed = records(meterRegistry, "failed");
+        Gauge.builder("gatepass.scan_audit.queue", queue, BlockingQueue::size)
+                .description("Scan audit entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    private static Counter records(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gatepass.scan_audit.records")
+                .description("Scan audit entries by what happened to them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "scan-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // The writer finishes its current insert, then whatever is still queued is written here
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(POLL_INTERVAL.multipliedBy(5).toMillis());
+        List<ScanAudit> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    public PassResponse record(ScanAudit.ScanAuditBuilder entry, Supplier<PassResponse> call) {
+        Instant at = Instant.now();
+        long start = System.nanoTime();
+        try {
+            PassResponse response = call.get();
+            append(completed(entry, response, PassMetrics.OUTCOME_SUCCESS, at, start));
+            return response;
+        } catch (RuntimeException ex) {
+            append(completed(entry, null, PassMetrics.outcomeOf(ex), at, start));
+            throw ex;
+        }
+    }
+
+    public Mono<PassResponse> record(ScanAudit.ScanAuditBuilder entry, Mono<PassResponse> call) {
+        return Mono.defer(() -> {
+            Instant at = Instant.now();
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(response -> append(
+                            completed(entry, response, PassMetrics.OUTCOME_SUCCESS, at, start)))
+                    .doOnError(ex -> append(completed(entry, null, PassMetrics.outcomeOf(ex), at, start)));
+        });
+    }
+
+    public void append(ScanAudit entry) {
+        if (enabled && !queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private ScanAudit completed(ScanAudit.ScanAuditBuilder entry, PassResponse response,
+                                String outcome, Instant at, long start) {
+        ScanAudit audit = entry
+                .outcome(outcome)
+                .at(at)
+                .latencyMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start))
+                .build();
+        // Requests by id learn the code (and scans by code the id) only from the updated pass
+        if (response != null) {
+            audit.setPassId(response.getId());
+            audit.setPassCode(response.getPassCode());
+        }
+        return audit;
+    }
+
+    private void drain() {
+        List<ScanAudit> batch = new ArrayList<>(batchSize);
+        while (running) {
+            ScanAudit first;
+            try {
+                first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ScanAudit> batch) {
+        try {
+            mongoTemplate.insert(batch, ScanAudit.class);
+            written.increment(batch.size());
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            log.warn("Failed to write {} scan audit entries: {}", batch.size(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+public class TransitionCommand {
+
+    private final String eventId;
+    private final String id;
+    private final String passCode;
+    private final PassAction action;
+    private final String actor;
+    private final Instant at;
+    private final String opId = new ObjectId().toHexString();
+
+    public TransitionCommand(String eventId, String id, String passCode, PassAction action, String actor, Instant at) {
+        this.eventId = eventId;
+        this.id = id;
+        this.passCode = passCode;
+        this.action = action;
+        this.actor = actor;
+        // Mongo stores millisecond precision; truncating keeps the value comparable after a round trip
+        this.at = at.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // An id from another event matches nothing, as if it did not exist
+    public Criteria selector() {
+        return id != null && !id.isBlank()
+                ? Criteria.where("event_id").is(eventId).and("_id").is(id)
+                : Criteria.where("event_id").is(eventId).and("pass_code").is(passCode);
+    }
+
+    public boolean matches(Pass pass) {
+        return eventId.equals(pass.getEventId()) && (id != null && !id.isBlank()
+                ? id.equals(pass.getId())
+                : passCode.equals(pass.getPassCode()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransitionResult {
+
+    public enum Outcome {
+        APPLIED,
+        ALREADY_DONE,
+        NOT_FOUND
+    }
+
+    private final Outcome outcome;
+    private final Pass pass;
+
+    public static TransitionResult applied(Pass pass) {
+        return new TransitionResult(Outcome.APPLIED, pass);
+    }
+
+    public static TransitionResult alreadyDone() {
+        return alreadyDone(null);
+    }
+
+    public static TransitionResult alreadyDone(Pass pass) {
+        return new TransitionResult(Outcome.ALREADY_DONE, pass);
+    }
+
+    public static TransitionResult notFound() {
+        return new TransitionResult(Outcome.NOT_FOUND, null);
+    }
+
+    public boolean isApplied() {
+        return outcome == Outcome.APPLIED;
+    }
+}
@@ -0,0 +1,37 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.stereotype.Component;
+
+// Only sees writes made through this instance; elsewhere the cache and token TTLs bound staleness
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener extends AbstractMongoEventListener<User> {
+
+    private final CachingAuthenticationProvider authenticationProvider;
+    private final AuthTokenService tokenService;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        String username = event.getSource().getUsername();
+        authenticationProvider.evict(username);
+        tokenService.revoke(username);
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<User> event) {
+        BasicQuery query = new BasicQuery(event.getSource());
+        query.fields().include("username");
+        for (User user : mongoTemplate.find(query, User.class)) {
+            authenticationProvider.evict(user.getUsername());
+            tokenService.revoke(user.getUsername());
+        }
+    }
+}
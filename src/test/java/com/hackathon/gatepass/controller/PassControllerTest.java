@@ -0,0 +1,221 @@
+package com.hackathon.gatepass.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.gatepass.exception.GlobalExceptionHandler;
+import com.hackathon.gatepass.model.IdempotencyRecord;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassStats;
+import com.hackathon.gatepass.repository.PassRepository;
+import com.hackathon.gatepass.service.DashboardFeed;
+import com.hackathon.gatepass.service.IdempotencyService;
+import com.hackathon.gatepass.service.PassCache;
+import com.hackathon.gatepass.service.PassCodeFilter;
+import com.hackathon.gatepass.service.PassCodeSigner;
+import com.hackathon.gatepass.service.PassEvents;
+import com.hackathon.gatepass.service.PassExportService;
+import com.hackathon.gatepass.service.PassFieldSet;
+import com.hackathon.gatepass.service.PassImportService;
+import com.hackathon.gatepass.service.PassMetrics;
+import com.hackathon.gatepass.service.PassPager;
+import com.hackathon.gatepass.service.PassService;
+import com.hackathon.gatepass.service.PassStatsService;
+import com.hackathon.gatepass.service.PassSyncService;
+import com.hackathon.gatepass.service.PassThroughputService;
+import com.hackathon.gatepass.service.PassTransitionEngine;
+import com.hackathon.gatepass.service.ScanAuditLog;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PassController over real services on the in-memory MongoDB, without the security and admission filters
+class PassControllerTest {
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+    private static DashboardFeed dashboardFeed;
+    private static ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+        dashboardFeed = new DashboardFeed(new PassStatsService(mongoTemplate, Duration.ZERO), 1000,
+                Duration.ofMinutes(1), Duration.ofSeconds(5), 1, Duration.ofSeconds(5));
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(PassFieldSet.defaultFilters()).build();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        dashboardFeed.stop();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.remove(new Query(), PassStats.class);
+        mongoTemplate.remove(new Query(), IdempotencyRecord.class);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PassStatsService statsService = new PassStatsService(mongoTemplate, Duration.ZERO);
+        PassSyncService syncService = new PassSyncService(mongoTemplate, Duration.ZERO);
+        PassThroughputService throughputService = new PassThroughputService(mongoTemplate,
+                Duration.ofHours(1), Duration.ofDays(7), Duration.ZERO);
+        PassCodeSigner signer = new PassCodeSigner(meterRegistry, "", "", true);
+        PassCodeFilter filter = new PassCodeFilter(mongoTemplate, meterRegistry, false, 1000, 0.01, false);
+        PassService passService = new PassService(
+                new MongoRepositoryFactory(mongoTemplate).getRepository(PassRepository.class), mongoTemplate,
+                new PassTransitionEngine(mongoTemplate), new PassCache(meterRegistry, 1000, Duration.ofMinutes(1)),
+                statsService, throughputService, new PassPager(mongoTemplate), syncService, dashboardFeed,
+                new PassMetrics(meterRegistry), new ScanAuditLog(mongoTemplate, meterRegistry, false, 10, 10),
+                signer, filter);
+        PassController controller = new PassController(passService,
+                new PassImportService(mongoTemplate, statsService, syncService, dashboardFeed, signer, filter,
+                        objectMapper, 100, 100),
+                new PassExportService(mongoTemplate, 100), throughputService,
+                new IdempotencyService(mongoTemplate, meterRegistry, 100, Duration.ofSeconds(30)),
+                new PassEvents(mongoTemplate, "gatepass"));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void listAndStatsAreNotModifiedUntilAPassChanges() throws Exception {
+        String id = createPass("/api/passes", "P1");
+
+        String etag = mockMvc.perform(get("/api/passes"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/passes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/passes/filter?entryVerified=false").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/passes/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/passes/" + id + "/verify-entry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"verifiedBy\": \"gate-1\"}"))
+                .andExpect(status().isOk());
+
+        String next = mockMvc.perform(get("/api/passes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].entryVerified").value(true))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isNotEqualTo(etag);
+        mockMvc.perform(get("/api/passes/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, next))
+                .andExpect(jsonPath("$.totalEntriesVerified").value(1));
+    }
+
+    @Test
+    void eventsDoNotSeeEachOthersPasses() throws Exception {
+        String idA = createPass("/api/events/event-a/passes", "P1");
+        createPass("/api/events/event-b/passes", "P1");
+        createPass("/api/events/event-b/passes", "P2");
+
+        mockMvc.perform(get("/api/events/event-a/passes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(idA));
+        mockMvc.perform(get("/api/events/event-b/passes/filter?entryVerified=false"))
+                .andExpect(jsonPath("$.items.length()").value(2));
+        mockMvc.perform(get("/api/passes"))
+                .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(get("/api/events/event-b/passes/sync"))
+                .andExpect(jsonPath("$.changes.length()").value(2));
+
+        // A pass id from one event is unknown on another event's routes
+        mockMvc.perform(post("/api/events/event-b/passes/" + idA + "/verify-entry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"verifiedBy\": \"gate-1\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/events/event-c/passes/scan?code=P1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/events/event-a/passes/" + idA + "/verify-entry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"verifiedBy\": \"gate-1\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/events/event-b/passes/scan?code=P1"))
+                .andExpect(jsonPath("$.entryVerified").value(false));
+        mockMvc.perform(get("/api/events/event-a/passes/stats"))
+                .andExpect(jsonPath("$.totalPasses").value(1))
+                .andExpect(jsonPath("$.totalEntriesVerified").value(1));
+        mockMvc.perform(get("/api/events/event-b/passes/stats"))
+                .andExpect(jsonPath("$.totalPasses").value(2))
+                .andExpect(jsonPath("$.totalEntriesVerified").value(0));
+    }
+
+    @Test
+    void writesToOneEventKeepAnotherEventsEtag() throws Exception {
+        createPass("/api/events/event-b/passes", "P1");
+        String etag = mockMvc.perform(get("/api/events/event-b/passes/stats"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        createPass("/api/events/event-a/passes", "P1");
+
+        mockMvc.perform(get("/api/events/event-b/passes/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void duplicateCodesAreOnlyRejectedWithinAnEvent() throws Exception {
+        createPass("/api/events/event-a/passes", "P1");
+
+        mockMvc.perform(post("/api/events/event-a/passes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"passCode\": \"P1\", \"teamName\": \"Team\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void malformedEventIdIsRejected() throws Exception {
+        mockMvc.perform(get("/api/events/bad.event/passes"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Invalid event id")));
+    }
+
+    private String createPass(String path, String passCode) throws Exception {
+        String body = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("passCode", passCode, "teamName", "Team"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
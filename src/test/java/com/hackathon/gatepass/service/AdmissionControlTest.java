@@ -0,0 +1,162 @@
+package com.hackathon.gatepass.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final String MONGO_URI = "mongodb://localhost:27017/gatepass";
+    // Slow enough that no bucket refills while a test runs
+    private static final double RATE = 0.001;
+
+    private static final AdmissionControl.ClientKey DEVICE_1 = AdmissionControl.clientKey("d1", null, "10.0.0.1");
+    private static final AdmissionControl.ClientKey DEVICE_2 = AdmissionControl.clientKey("d2", null, "10.0.0.1");
+
+    @Test
+    void requestsAreClassifiedByRouteForEveryEvent() {
+        assertThat(AdmissionControl.classify("GET", "/api/passes/scan")).isEqualTo(AdmissionControl.Priority.SCAN);
+        assertThat(AdmissionControl.classify("POST", "/api/events/e1/passes/scan"))
+                .isEqualTo(AdmissionControl.Priority.SCAN);
+        assertThat(AdmissionControl.classify("POST", "/api/events/e1/passes/abc/verify-entry"))
+                .isEqualTo(AdmissionControl.Priority.SCAN);
+        assertThat(AdmissionControl.classify("GET", "/api/events/e1/passes/stats"))
+                .isEqualTo(AdmissionControl.Priority.BACKGROUND);
+        assertThat(AdmissionControl.classify("GET", "/api/passes/export"))
+                .isEqualTo(AdmissionControl.Priority.BACKGROUND);
+        assertThat(AdmissionControl.classify("POST", "/api/passes")).isEqualTo(AdmissionControl.Priority.DEFAULT);
+        assertThat(AdmissionControl.classify("GET", "/api/events/e1/passes/stats/stream"))
+                .isEqualTo(AdmissionControl.Priority.EXEMPT);
+        assertThat(AdmissionControl.classify("GET", "/actuator/health")).isEqualTo(AdmissionControl.Priority.EXEMPT);
+    }
+
+    @Test
+    void clientKeyNestsTheDeviceUnderAnAuthenticatedUser() {
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of());
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertThat(AdmissionControl.clientKey("d1", user, "10.0.0.1"))
+                .extracting(AdmissionControl.ClientKey::getDevice, AdmissionControl.ClientKey::getUser)
+                .containsExactly("user:alice/device:d1", "user:alice");
+        assertThat(AdmissionControl.clientKey(" ", user, "10.0.0.1").getDevice()).isEqualTo("user:alice/ip:10.0.0.1");
+        assertThat(AdmissionControl.clientKey("d1", anonymous, "10.0.0.1"))
+                .extracting(AdmissionControl.ClientKey::getDevice, AdmissionControl.ClientKey::getUser)
+                .containsExactly("device:d1", null);
+        assertThat(AdmissionControl.clientKey(null, null, "10.0.0.1").getDevice()).isEqualTo("ip:10.0.0.1");
+    }
+
+    @Test
+    void deviceBucketLimitsOnlyItsOwnDevice() {
+        AdmissionControl admission = admission(10, Duration.ZERO, 2, 100);
+
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+        Admission limited = admission.admit(AdmissionControl.Priority.SCAN, DEVICE_1, false);
+
+        assertThat(limited.getOutcome()).isEqualTo(Admission.Outcome.RATE_LIMITED);
+        assertThat(limited.getRetryAfterSeconds()).isPositive();
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_2)).isTrue();
+    }
+
+    @Test
+    void userBucketIsSharedByAllOfTheUsersDevices() {
+        AdmissionControl admission = admission(10, Duration.ZERO, 100, 3);
+        Authentication alice = UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of());
+        Authentication bob = UsernamePasswordAuthenticationToken.authenticated("bob", null, List.of());
+
+        for (String device : List.of("d1", "d2", "d3")) {
+            assertThat(admitted(admission, AdmissionControl.Priority.SCAN,
+                    AdmissionControl.clientKey(device, alice, "10.0.0.1"))).isTrue();
+        }
+        // A new device id does not buy the user a fresh allowance
+        assertThat(admission.admit(AdmissionControl.Priority.SCAN,
+                AdmissionControl.clientKey("d4", alice, "10.0.0.1"), false).getOutcome())
+                .isEqualTo(Admission.Outcome.RATE_LIMITED);
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN,
+                AdmissionControl.clientKey("d4", bob, "10.0.0.1"))).isTrue();
+    }
+
+    @Test
+    void dashboardReadsGetOnlyTheirShareOfTheLimit() {
+        // 4 permits, a quarter of them for background reads
+        AdmissionControl admission = admission(4, Duration.ZERO, 100, 100);
+
+        Admission read = admission.admit(AdmissionControl.Priority.BACKGROUND, DEVICE_1, true);
+        assertThat(read.isAdmitted()).isTrue();
+        assertThat(admission.admit(AdmissionControl.Priority.BACKGROUND, DEVICE_1, true).getOutcome())
+                .isEqualTo(Admission.Outcome.OVERLOADED);
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+
+        read.release();
+        read.release();
+        assertThat(admission.admit(AdmissionControl.Priority.BACKGROUND, DEVICE_1, true).isAdmitted()).isTrue();
+        assertThat(admission.admit(AdmissionControl.Priority.BACKGROUND, DEVICE_1, true).getOutcome())
+                .isEqualTo(Admission.Outcome.OVERLOADED);
+    }
+
+    @Test
+    void onlyScansOnBlockingCallersWaitForAPermit() throws Exception {
+        AdmissionControl admission = admission(1, Duration.ofSeconds(5), 100, 100);
+        Admission held = admission.admit(AdmissionControl.Priority.DEFAULT, DEVICE_1, true);
+
+        assertThat(admission.admit(AdmissionControl.Priority.DEFAULT, DEVICE_1, true).getOutcome())
+                .isEqualTo(Admission.Outcome.OVERLOADED);
+        assertThat(admission.admit(AdmissionControl.Priority.SCAN, DEVICE_1, false).getOutcome())
+                .isEqualTo(Admission.Outcome.OVERLOADED);
+
+        CompletableFuture<Admission> waiting = CompletableFuture.supplyAsync(
+                () -> admission.admit(AdmissionControl.Priority.SCAN, DEVICE_2, true));
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        held.release();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS).isAdmitted()).isTrue();
+    }
+
+    @Test
+    void concurrencyLimitDefaultsToTheMongoPoolSize() {
+        AdmissionControl admission = new AdmissionControl(new SimpleMeterRegistry(),
+                "mongodb://localhost:27017/gatepass?maxPoolSize=2", true, 0, 0.25, Duration.ZERO,
+                100, 100, 100, 100);
+
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+        assertThat(admitted(admission, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+        assertThat(admission.admit(AdmissionControl.Priority.SCAN, DEVICE_1, false).getOutcome())
+                .isEqualTo(Admission.Outcome.OVERLOADED);
+    }
+
+    @Test
+    void exemptAndDisabledRequestsAreNeverLimited() {
+        AdmissionControl disabled = new AdmissionControl(new SimpleMeterRegistry(), MONGO_URI, false, 1, 0.25,
+                Duration.ZERO, RATE, 1, RATE, 1);
+        AdmissionControl enabled = admission(1, Duration.ZERO, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(admitted(disabled, AdmissionControl.Priority.SCAN, DEVICE_1)).isTrue();
+            assertThat(admitted(enabled, AdmissionControl.Priority.EXEMPT, DEVICE_1)).isTrue();
+        }
+    }
+
+    // Permits are held, so every admission counts against the concurrency limit until released
+    private static boolean admitted(AdmissionControl admission, AdmissionControl.Priority priority,
+                                    AdmissionControl.ClientKey clientKey) {
+        return admission.admit(priority, clientKey, false).isAdmitted();
+    }
+
+    private static AdmissionControl admission(int maxConcurrent, Duration scanQueueTimeout,
+                                              double deviceBurst, double userBurst) {
+        return new AdmissionControl(new SimpleMeterRegistry(), MONGO_URI, true, maxConcurrent, 0.25,
+                scanQueueTimeout, RATE, deviceBurst, RATE, userBurst);
+    }
+}
@@ -0,0 +1,173 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.PassResponse;
+import com.hackathon.gatepass.exception.IdempotentRequestInProgressException;
+import com.hackathon.gatepass.exception.InvalidIdempotencyKeyException;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import com.hackathon.gatepass.model.IdempotencyRecord;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+    private static final String REQUEST = IdempotencyService.request("test", PassAction.ENTRY, "P1", "gate-1");
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+    private static MongoClient reactiveClient;
+    private static ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+        reactiveClient = MongoClients.create(mongo.getConnectionString());
+        reactiveMongoTemplate = new ReactiveMongoTemplate(reactiveClient, "gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        reactiveClient.close();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void clear() {
+        mongoTemplate.remove(new Query(), IdempotencyRecord.class);
+        idempotencyService = newService();
+        calls.set(0);
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        PassResponse first = idempotencyService.execute(KEY, REQUEST, () -> verified("gate-1"));
+        // Another node has nothing cached and reads the stored result
+        PassResponse retry = newService().execute(KEY, REQUEST, () -> verified("gate-2"));
+
+        assertThat(calls).hasValue(1);
+        assertThat(retry).isEqualTo(first);
+    }
+
+    @Test
+    void retryReplaysTheFirstRejection() {
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, REQUEST, () -> {
+            calls.incrementAndGet();
+            throw new PassNotFoundException("Pass not found with code: P1");
+        })).isInstanceOf(PassNotFoundException.class);
+
+        assertThatThrownBy(() -> newService().execute(KEY, REQUEST, () -> verified("gate-2")))
+                .isInstanceOf(PassNotFoundException.class)
+                .hasMessage("Pass not found with code: P1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        idempotencyService.execute(KEY, REQUEST, () -> verified("gate-1"));
+
+        String other = IdempotencyService.request("test", PassAction.ENTRY, "P2", "gate-1");
+        assertThatThrownBy(() -> newService().execute(KEY, other, () -> verified("gate-1")))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    @Test
+    void freshReservationIsInProgress() {
+        mongoTemplate.insert(idempotencyService.pending(KEY, REQUEST, Instant.now()));
+
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, REQUEST, () -> verified("gate-1")))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void staleReservationIsTakenOver() {
+        mongoTemplate.insert(idempotencyService.pending(KEY, REQUEST, Instant.now().minusSeconds(60)));
+
+        PassResponse response = idempotencyService.execute(KEY, REQUEST, () -> verified("gate-1"));
+
+        assertThat(calls).hasValue(1);
+        IdempotencyRecord stored = mongoTemplate.findById(KEY, IdempotencyRecord.class);
+        assertThat(stored.getState()).isEqualTo(IdempotencyRecord.State.COMPLETED);
+        assertThat(stored.getResponse()).isEqualTo(response);
+    }
+
+    @Test
+    void completionOfATakenOverReservationReplaysTheNewOwnersResult() {
+        PassResponse response = idempotencyService.execute(KEY, REQUEST, () -> {
+            takeOverAndComplete("gate-2");
+            return verified("gate-1");
+        });
+
+        assertThat(response.getVerifiedBy()).isEqualTo("gate-2");
+        assertThat(mongoTemplate.findById(KEY, IdempotencyRecord.class).getResponse().getVerifiedBy())
+                .isEqualTo("gate-2");
+    }
+
+    @Test
+    void reactiveCompletionOfATakenOverReservationReplaysTheNewOwnersResult() {
+        ReactiveIdempotencyService reactive = new ReactiveIdempotencyService(reactiveMongoTemplate, idempotencyService);
+
+        PassResponse response = reactive.execute(KEY, REQUEST, Mono.fromCallable(() -> {
+            takeOverAndComplete("gate-2");
+            return verified("gate-1");
+        })).block();
+
+        assertThat(response.getVerifiedBy()).isEqualTo("gate-2");
+        assertThat(mongoTemplate.findById(KEY, IdempotencyRecord.class).getResponse().getVerifiedBy())
+                .isEqualTo("gate-2");
+    }
+
+    @Test
+    void unexpectedFailureFreesTheKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, REQUEST, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(mongoTemplate.findById(KEY, IdempotencyRecord.class)).isNull();
+        assertThat(idempotencyService.execute(KEY, REQUEST, () -> verified("gate-1")).getVerifiedBy())
+                .isEqualTo("gate-1");
+    }
+
+    // What a node that took the reservation over after a pending timeout would leave behind
+    private void takeOverAndComplete(String verifiedBy) {
+        IdempotencyRecord current = mongoTemplate.findById(KEY, IdempotencyRecord.class);
+        Instant takenAt = current.getCreatedAt().plusSeconds(1);
+        mongoTemplate.updateFirst(idempotencyService.takeoverQuery(current),
+                idempotencyService.takeoverUpdate(takenAt), IdempotencyRecord.class);
+        IdempotencyRecord completion = idempotencyService.completion(KEY, REQUEST, takenAt,
+                PassResponse.builder().passCode("P1").entryVerified(true).verifiedBy(verifiedBy).build(), null);
+        mongoTemplate.updateFirst(idempotencyService.reservationQuery(KEY, takenAt),
+                idempotencyService.completionUpdate(completion), IdempotencyRecord.class);
+    }
+
+    private PassResponse verified(String verifiedBy) {
+        calls.incrementAndGet();
+        return PassResponse.builder().passCode("P1").entryVerified(true).verifiedBy(verifiedBy).build();
+    }
+
+    private static IdempotencyService newService() {
+        return new IdempotencyService(mongoTemplate, new SimpleMeterRegistry(), 100, Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,140 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassCodeFilterTest {
+
+    private static final String EVENT_ID = "test";
+    private static final int PASSES = 2000;
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void seedPasses() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.insert(IntStream.range(0, PASSES).mapToObj(i -> pass(EVENT_ID, "P" + i)).toList(), Pass.class);
+    }
+
+    @Test
+    void storedCodesAreNeverReportedAbsent() {
+        PassCodeFilter filter = filter(10_000);
+        filter.build();
+
+        for (int i = 0; i < PASSES; i++) {
+            assertThat(filter.definitelyAbsent(EVENT_ID, "P" + i)).as("P" + i).isFalse();
+        }
+    }
+
+    @Test
+    void unknownCodesAreMostlyReportedAbsent() {
+        PassCodeFilter filter = filter(10_000);
+        filter.build();
+
+        long absent = IntStream.range(0, 10_000)
+                .filter(i -> filter.definitelyAbsent(EVENT_ID, "UNKNOWN-" + i))
+                .count();
+
+        // Sized for a 1% false positive rate; a few times that still means the filter is broken
+        assertThat(absent).isGreaterThan(9_700);
+    }
+
+    @Test
+    void codesAreKeyedByEvent() {
+        PassCodeFilter filter = filter(10_000);
+        filter.build();
+
+        long absentElsewhere = IntStream.range(0, PASSES)
+                .filter(i -> filter.definitelyAbsent("other", "P" + i))
+                .count();
+
+        assertThat(absentElsewhere).isGreaterThan(PASSES * 97L / 100);
+    }
+
+    @Test
+    void codesAddedAfterTheBuildAreKnown() {
+        PassCodeFilter filter = filter(10_000);
+        filter.build();
+
+        filter.add(EVENT_ID, "NEW-1");
+        filter.addAll(List.of(pass(EVENT_ID, "NEW-2"), pass("other", "NEW-3")));
+
+        assertThat(filter.definitelyAbsent(EVENT_ID, "NEW-1")).isFalse();
+        assertThat(filter.definitelyAbsent(EVENT_ID, "NEW-2")).isFalse();
+        assertThat(filter.definitelyAbsent("other", "NEW-3")).isFalse();
+    }
+
+    @Test
+    void withoutABuiltFilterNothingIsAbsent() {
+        PassCodeFilter unbuilt = filter(10_000);
+        PassCodeFilter shared = new PassCodeFilter(mongoTemplate, new SimpleMeterRegistry(), true, 10_000, 0.01, false);
+        shared.build();
+        PassCodeFilter disabled = new PassCodeFilter(mongoTemplate, new SimpleMeterRegistry(), false, 10_000, 0.01, true);
+        disabled.build();
+
+        for (PassCodeFilter filter : List.of(unbuilt, shared, disabled)) {
+            assertThat(filter.definitelyAbsent(EVENT_ID, "UNKNOWN")).isFalse();
+        }
+    }
+
+    @Test
+    void manyDeletionsTriggerARebuildThatForgetsTheDeletedCodes() {
+        PassCodeFilter filter = filter(100);
+        filter.build();
+        assertThat(filter.definitelyAbsent(EVENT_ID, "P0")).isFalse();
+
+        mongoTemplate.remove(new Query(), Pass.class);
+        filter.removed();
+        filter.rebuildIfStale();
+        assertThat(filter.definitelyAbsent(EVENT_ID, "P0")).isFalse();
+
+        // Sized for the larger of expected-passes and twice the stored codes, so for 4000; a tenth of that
+        // removed makes it stale
+        for (int i = 0; i < 400; i++) {
+            filter.removed();
+        }
+        filter.rebuildIfStale();
+
+        assertThat(filter.definitelyAbsent(EVENT_ID, "P0")).isTrue();
+    }
+
+    private static PassCodeFilter filter(long expectedPasses) {
+        return new PassCodeFilter(mongoTemplate, new SimpleMeterRegistry(), true, expectedPasses, 0.01, true);
+    }
+
+    private static Pass pass(String eventId, String passCode) {
+        return Pass.builder()
+                .eventId(eventId)
+                .passCode(passCode)
+                .teamName("Team " + passCode)
+                .entryVerified(false)
+                .goodiesGiven(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
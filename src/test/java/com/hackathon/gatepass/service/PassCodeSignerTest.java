@@ -0,0 +1,136 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.CreatePassRequest;
+import com.hackathon.gatepass.exception.PassNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassCodeSignerTest {
+
+    private static final String EVENT_ID = "test";
+    private static final String K1 = "k1:" + secret('a');
+    private static final String K2 = "k2:" + secret('b');
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void startValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void stopValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void signedCodeResolvesToThePlainCode() {
+        PassCodeSigner signer = signer(K1, "", true);
+
+        String signed = signer.sign(EVENT_ID, "TEAM.42");
+
+        assertThat(signed).startsWith("GP1.test.TEAM.42.k1.");
+        assertThat(signer.resolve(EVENT_ID, signed)).isEqualTo("TEAM.42");
+    }
+
+    @Test
+    void tamperedCodesAreRejected() {
+        PassCodeSigner signer = signer(K1, "", true);
+        String signed = signer.sign(EVENT_ID, "P1");
+        String mac = signed.substring(signed.lastIndexOf('.') + 1);
+        char flipped = mac.charAt(0) == 'A' ? 'B' : 'A';
+
+        assertThatThrownBy(() -> signer.resolve(EVENT_ID, signed.replace(".P1.", ".P2.")))
+                .isInstanceOf(PassNotFoundException.class)
+                .hasMessageStartingWith("Pass code signature does not match");
+        assertThatThrownBy(() -> signer.resolve(EVENT_ID, signed.replace("." + mac, "." + flipped + mac.substring(1))))
+                .hasMessageStartingWith("Pass code signature does not match");
+        assertThatThrownBy(() -> signer.resolve("other", signed))
+                .hasMessageStartingWith("Pass code belongs to another event");
+        assertThatThrownBy(() -> signer.resolve(EVENT_ID, "GP1.test"))
+                .hasMessageStartingWith("Malformed pass code");
+    }
+
+    @Test
+    void codeSignedWithAnotherKeysSecretIsForged() {
+        String signed = signer(K1, "", true).sign(EVENT_ID, "P1");
+
+        assertThatThrownBy(() -> signer("k1:" + secret('z'), "", true).resolve(EVENT_ID, signed))
+                .isInstanceOf(PassNotFoundException.class)
+                .hasMessageStartingWith("Pass code signature does not match");
+    }
+
+    @Test
+    void rotationKeepsOldCodesValidUntilTheirKeyIsRetired() {
+        String oldCode = signer(K1, "", true).sign(EVENT_ID, "P1");
+
+        PassCodeSigner rotated = signer(K1 + "," + K2, "k2", true);
+        String newCode = rotated.sign(EVENT_ID, "P1");
+
+        assertThat(newCode).contains(".k2.");
+        assertThat(rotated.resolve(EVENT_ID, oldCode)).isEqualTo("P1");
+        assertThat(rotated.resolve(EVENT_ID, newCode)).isEqualTo("P1");
+        // What signPassCodes re-signs on rotation: everything not yet signed with the active key
+        assertThat(newCode).matches(rotated.activeCodePattern(EVENT_ID));
+        assertThat(oldCode).doesNotMatch(rotated.activeCodePattern(EVENT_ID));
+
+        PassCodeSigner retired = signer(K2, "", true);
+        assertThat(retired.resolve(EVENT_ID, newCode)).isEqualTo("P1");
+        assertThatThrownBy(() -> retired.resolve(EVENT_ID, oldCode))
+                .isInstanceOf(PassNotFoundException.class)
+                .hasMessageStartingWith("Pass code signed with an unknown or retired key");
+    }
+
+    @Test
+    void unsignedCodesFollowTheAcceptUnsignedSetting() {
+        assertThat(signer(K1, "", true).resolve(EVENT_ID, "P1")).isEqualTo("P1");
+        assertThatThrownBy(() -> signer(K1, "", false).resolve(EVENT_ID, "P1"))
+                .isInstanceOf(PassNotFoundException.class)
+                .hasMessageStartingWith("Pass code is not signed");
+    }
+
+    @Test
+    void withoutKeysCodesAreNeitherSignedNorChecked() {
+        PassCodeSigner signer = signer("", "", false);
+
+        assertThat(signer.sign(EVENT_ID, "P1")).isNull();
+        assertThat(signer.resolve(EVENT_ID, "GP1.anything")).isEqualTo("GP1.anything");
+    }
+
+    @Test
+    void plainCodesInTheSignedFormAreRejectedOnCreate() {
+        assertThat(violations("GP1.test.P1")).containsExactly(PassCodeSigner.PLAIN_CODE_MESSAGE);
+        assertThat(violations("GP1.")).containsExactly(PassCodeSigner.PLAIN_CODE_MESSAGE);
+        assertThat(violations("GP1-P1")).isEmpty();
+        assertThat(violations("P1.GP1.x")).isEmpty();
+    }
+
+    private static List<String> violations(String passCode) {
+        return validator.validate(CreatePassRequest.builder().passCode(passCode).teamName("Team").build())
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .toList();
+    }
+
+    private static PassCodeSigner signer(String keys, String activeKeyId, boolean acceptUnsigned) {
+        return new PassCodeSigner(new SimpleMeterRegistry(), keys, activeKeyId, acceptUnsigned);
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
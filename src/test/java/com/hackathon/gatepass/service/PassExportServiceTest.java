@@ -0,0 +1,183 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.hackathon.gatepass.dto.ImportResponse;
+import com.hackathon.gatepass.dto.PassFilterParams;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PassExportServiceTest {
+
+    private static final String EVENT_ID = "test";
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+    private static DashboardFeed dashboardFeed;
+
+    private PassExportService exportService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+        dashboardFeed = new DashboardFeed(new PassStatsService(mongoTemplate, Duration.ZERO), 1000,
+                Duration.ofMinutes(1), Duration.ofSeconds(5), 1, Duration.ofSeconds(5));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        dashboardFeed.stop();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void seedPasses() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.insert(List.of(
+                pass("P1", "=HYPERLINK(\"http://x\")", "MIT"),
+                pass("P2", "'=kept", "O'Neil College"),
+                pass("P3", "-", null)), Pass.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("pass_code").is("P3")),
+                new PassTransitionEngine(mongoTemplate).transitionUpdate(
+                        PassAction.ENTRY, "gate-1", Instant.now()),
+                Pass.class);
+        exportService = new PassExportService(mongoTemplate, 2);
+    }
+
+    @Test
+    void csvEscapesFormulaCellsAndCellsThatStartWithAQuote() throws IOException {
+        List<Map<String, String>> rows = csvRows(export(PassExportService.ExportFormat.CSV, new PassFilterParams()));
+
+        assertThat(rows).extracting(row -> row.get("passCode"), row -> row.get("teamName"), row -> row.get("college"))
+                .containsExactly(
+                        tuple("P1", "'=HYPERLINK(\"http://x\")", "MIT"),
+                        tuple("P2", "''=kept", "O'Neil College"),
+                        tuple("P3", "'-", ""));
+        assertThat(rows.get(2).get("entryVerified")).isEqualTo("true");
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws IOException {
+        byte[] csv = export(PassExportService.ExportFormat.CSV, new PassFilterParams());
+
+        ImportResponse response = importService().importPasses("copy", new ByteArrayInputStream(csv),
+                PassImportService.ImportFormat.CSV, true);
+
+        assertThat(response.getInserted()).isEqualTo(3);
+        List<Pass> copied = mongoTemplate.find(Query.query(Criteria.where("event_id").is("copy"))
+                .with(Sort.by("pass_code")), Pass.class);
+        assertThat(copied).extracting(Pass::getPassCode, Pass::getTeamName, Pass::getCollege)
+                .containsExactly(
+                        tuple("P1", "=HYPERLINK(\"http://x\")", "MIT"),
+                        tuple("P2", "'=kept", "O'Neil College"),
+                        tuple("P3", "-", null));
+    }
+
+    @Test
+    void exportAppliesTheFilter() throws IOException {
+        PassFilterParams filter = new PassFilterParams();
+        filter.setEntryVerified(true);
+
+        assertThat(csvRows(export(PassExportService.ExportFormat.CSV, filter)))
+                .extracting(row -> row.get("passCode"))
+                .containsExactly("P3");
+    }
+
+    @Test
+    void xlsxWritesTypedCellsUnescaped() throws IOException {
+        String sheet = zipEntry(export(PassExportService.ExportFormat.XLSX, new PassFilterParams()),
+                "xl/worksheets/sheet1.xml");
+
+        assertThat(sheet)
+                .contains("<t xml:space=\"preserve\">passCode</t>")
+                .contains("<t xml:space=\"preserve\">=HYPERLINK(&quot;http://x&quot;)</t>")
+                .contains("<t xml:space=\"preserve\">'=kept</t>")
+                .contains("t=\"b\"><v>1</v>")
+                .doesNotContain("<t xml:space=\"preserve\">'=HYPERLINK");
+        assertThat(sheet.split("<row ")).hasSize(5);
+    }
+
+    @Test
+    void csvCellsRoundTrip() {
+        for (String value : List.of("plain", "=1+1", "+1", "-", "@x", "\tx", "'", "'=x", "''x", "O'Neil", "")) {
+            assertThat(CsvCells.read(CsvCells.write(value))).isEqualTo(value);
+        }
+        assertThat(CsvCells.write(42)).isEqualTo("42");
+        assertThat(CsvCells.write(-1)).isEqualTo("-1");
+        assertThat(CsvCells.write(null)).isEmpty();
+    }
+
+    private byte[] export(PassExportService.ExportFormat format, PassFilterParams filter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(EVENT_ID, filter, format, out);
+        return out.toByteArray();
+    }
+
+    private static List<Map<String, String>> csvRows(byte[] csv) throws IOException {
+        try (MappingIterator<Map<String, String>> rows = new CsvMapper().readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(csv)) {
+            return rows.readAll();
+        }
+    }
+
+    private static String zipEntry(byte[] zip, String name) throws IOException {
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                if (entry.getName().equals(name)) {
+                    return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new AssertionError(name + " not in the archive");
+    }
+
+    private static PassImportService importService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new PassImportService(mongoTemplate, new PassStatsService(mongoTemplate, Duration.ZERO),
+                new PassSyncService(mongoTemplate, Duration.ZERO), dashboardFeed,
+                new PassCodeSigner(meterRegistry, "", "", true),
+                new PassCodeFilter(mongoTemplate, meterRegistry, false, 1000, 0.01, false),
+                new ObjectMapper(), 2, 100);
+    }
+
+    private static Pass pass(String passCode, String teamName, String college) {
+        return Pass.builder()
+                .eventId(EVENT_ID)
+                .passCode(passCode)
+                .teamName(teamName)
+                .college(college)
+                .collegeKey(PassSearchKeys.collegeKey(college))
+                .entryVerified(false)
+                .goodiesGiven(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
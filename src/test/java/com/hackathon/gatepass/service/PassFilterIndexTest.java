@@ -0,0 +1,209 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Each filter shape must have an index that serves its created_at page order, or MongoDB sorts every
+// match in memory before returning the first pass. The key order is checked on every build; the query
+// planner only runs against a real mongod, so those tests are skipped where Docker is not available.
+class PassFilterIndexTest {
+
+    private static final String EVENT_ID = "test";
+
+    private static MongoDBContainer container;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    static Stream<Arguments> filterShapes() {
+        return Stream.of(
+                Arguments.of("event only", filter(null, null, null, null, null),
+                        "event_created_at_id_college_key"),
+                Arguments.of("entry verified", filter(true, null, null, null, null),
+                        "event_entry_created_at_id"),
+                Arguments.of("entry and goodies", filter(true, false, null, null, null),
+                        "event_entry_goodies_created_at_id"),
+                Arguments.of("goodies given", filter(null, true, null, null, null),
+                        "event_goodies_created_at_id"),
+                Arguments.of("verified by", filter(null, null, "volunteer1", null, null),
+                        "event_verified_by_created_at_id"),
+                Arguments.of("goodies given by", filter(null, null, null, "volunteer2", null),
+                        "event_goodies_given_by_created_at_id"),
+                Arguments.of("college prefix", filter(null, null, null, null, "mit"),
+                        "event_created_at_id_college_key"),
+                Arguments.of("college prefix and flags", filter(true, false, null, null, "IIT B"),
+                        "event_entry_goodies_created_at_id"));
+    }
+
+    private static Criteria filter(Boolean entryVerified, Boolean goodiesGiven, String verifiedBy,
+                                   String goodiesGivenBy, String college) {
+        return PassService.filterCriteria(EVENT_ID, entryVerified, goodiesGiven, verifiedBy, goodiesGivenBy, college);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterShapes")
+    void indexKeysServeTheFilterInCreatedAtOrder(String shape, Criteria filter, String indexName) {
+        List<String> keys = indexKeys(indexName);
+        Set<String> equalities = new HashSet<>();
+        for (Document condition : filter.getCriteriaObject().getList("$and", Document.class)) {
+            condition.forEach((field, value) -> {
+                if (!(value instanceof Pattern || value instanceof BsonRegularExpression)) {
+                    equalities.add(field);
+                }
+            });
+        }
+
+        // Equality fields in any order, then the sort keys; a prefix match is a range and may only come after
+        int sortAt = keys.indexOf("created_at");
+        assertThat(sortAt).as("%s has no created_at key", indexName).isPositive();
+        assertThat(new HashSet<>(keys.subList(0, sortAt))).as("keys of %s before created_at", indexName)
+                .isEqualTo(equalities);
+        assertThat(keys.get(sortAt + 1)).isEqualTo("_id");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterShapes")
+    void filterPageIsServedByItsIndexWithoutSorting(String shape, Criteria filter, String indexName) {
+        // The default page order PassPager applies
+        Query query = Query.query(filter)
+                .with(Sort.by(Sort.Direction.ASC, "created_at").and(Sort.by(Sort.Direction.ASC, "_id")))
+                .limit(PassPager.DEFAULT_LIMIT);
+
+        assertServedWithoutSort(shape, query, indexName);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterShapes")
+    void exportIsServedByTheFilterIndexWithoutSorting(String shape, Criteria filter, String indexName) {
+        assertServedWithoutSort(shape, PassExportService.exportQuery(filter), indexName);
+    }
+
+    private static void assertServedWithoutSort(String shape, Query query, String indexName) {
+        Document winningPlan = explain(query).get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+        List<Document> stages = stages(winningPlan);
+        assertThat(stages).as("winning plan of %s: %s", shape, winningPlan.toJson())
+                .extracting(stage -> stage.getString("stage"))
+                .contains("IXSCAN")
+                .doesNotContain("COLLSCAN", "SORT");
+        assertThat(stages).as("winning plan of %s: %s", shape, winningPlan.toJson())
+                .filteredOn(stage -> "IXSCAN".equals(stage.getString("stage")))
+                .extracting(stage -> stage.getString("indexName"))
+                .containsOnly(indexName);
+    }
+
+    private static Document explain(Query query) {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        MongoTemplate template = realMongo();
+        var find = template.getCollection(template.getCollectionName(Pass.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject());
+        if (query.getLimit() > 0) {
+            find.limit(query.getLimit());
+        }
+        return find.explain();
+    }
+
+    // Started on first use, so the key order checks still run without Docker
+    private static synchronized MongoTemplate realMongo() {
+        if (mongoTemplate == null) {
+            container = new MongoDBContainer("mongo:7.0");
+            container.start();
+            client = MongoClients.create(container.getConnectionString());
+            mongoTemplate = new MongoTemplate(client, "gatepass_test");
+
+            // Same index set MongoConfig.initIndexes creates at startup
+            IndexOperations indexOps = mongoTemplate.indexOps(Pass.class);
+            resolvedIndexes().forEach(indexOps::createIndex);
+            seed(mongoTemplate);
+        }
+        return mongoTemplate;
+    }
+
+    private static void seed(MongoTemplate template) {
+        Instant createdAt = Instant.parse("2024-01-15T10:00:00Z");
+        template.insert(IntStream.range(0, 200)
+                .mapToObj(i -> Pass.builder()
+                        .eventId(EVENT_ID)
+                        .passCode("P" + i)
+                        .teamName("Team " + i)
+                        .college(i % 2 == 0 ? "MIT Pune" : "IIT Bombay")
+                        .collegeKey(PassSearchKeys.collegeKey(i % 2 == 0 ? "MIT Pune" : "IIT Bombay"))
+                        .entryVerified(i % 3 == 0)
+                        .verifiedBy(i % 3 == 0 ? "volunteer" + i % 4 : null)
+                        .goodiesGiven(i % 6 == 0)
+                        .goodiesGivenBy(i % 6 == 0 ? "volunteer" + i % 4 : null)
+                        .createdAt(createdAt.plusSeconds(i))
+                        .build())
+                .toList(), Pass.class);
+    }
+
+    @AfterAll
+    static synchronized void stopRealMongo() {
+        if (container != null) {
+            client.close();
+            container.stop();
+        }
+    }
+
+    private static List<IndexDefinition> resolvedIndexes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        List<IndexDefinition> indexes = new ArrayList<>();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Pass.class).forEach(indexes::add);
+        return indexes;
+    }
+
+    private static List<String> indexKeys(String indexName) {
+        return resolvedIndexes().stream()
+                .filter(index -> indexName.equals(index.getIndexOptions().getString("name")))
+                .findFirst()
+                .map(index -> new ArrayList<>(index.getIndexKeys().keySet()))
+                .orElseThrow(() -> new AssertionError("No index named " + indexName));
+    }
+
+    // Walks inputStage/inputStages; mongod 7 may wrap the classic plan in queryPlan for the slot engine
+    private static List<Document> stages(Document plan) {
+        List<Document> stages = new ArrayList<>();
+        Document node = plan.containsKey("queryPlan") ? plan.get("queryPlan", Document.class) : plan;
+        stages.add(node);
+        if (node.containsKey("inputStage")) {
+            stages.addAll(stages(node.get("inputStage", Document.class)));
+        }
+        if (node.containsKey("inputStages")) {
+            for (Document input : node.getList("inputStages", Document.class)) {
+                stages.addAll(stages(input));
+            }
+        }
+        return stages;
+    }
+}
@@ -0,0 +1,191 @@
+package com.hackathon.gatepass.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.gatepass.dto.ImportResponse;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PassImportServiceTest {
+
+    private static final String EVENT_ID = "test";
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+    private static DashboardFeed dashboardFeed;
+
+    private PassImportService importService;
+    private long existingPasses;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+        dashboardFeed = new DashboardFeed(new PassStatsService(mongoTemplate, Duration.ZERO), 1000,
+                Duration.ofMinutes(1), Duration.ofSeconds(5), 1, Duration.ofSeconds(5));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        dashboardFeed.stop();
+        mongo.close();
+    }
+
+    @BeforeEach
+    void clear() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.insert(Pass.builder().eventId(EVENT_ID).passCode("P1").teamName("Team 1")
+                .entryVerified(false).goodiesGiven(false).createdAt(Instant.now()).build());
+        existingPasses = 1;
+        importService = importService(100);
+    }
+
+    @Test
+    void unorderedImportInsertsEveryValidRowAndAccountsForTheRest() throws IOException {
+        ImportResponse response = importCsv(false, """
+                passCode,teamName
+                P1,Team 1
+                P2,
+                P2,Team 2
+                P2,Team 2 again
+                P3,Team 3
+                """);
+
+        assertThat(response.getTotalRows()).isEqualTo(5);
+        assertThat(response.getInserted()).isEqualTo(2);
+        assertThat(response.getDuplicates()).isEqualTo(2);
+        assertThat(response.getInvalid()).isEqualTo(1);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getSkipped()).isZero();
+        assertThat(response.getRows()).extracting(ImportResponse.RowResult::getRow, ImportResponse.RowResult::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, ImportResponse.RowStatus.DUPLICATE),
+                        tuple(2L, ImportResponse.RowStatus.INVALID),
+                        tuple(4L, ImportResponse.RowStatus.DUPLICATE));
+        assertThat(importedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void orderedImportStopsAtTheFirstRejectedRow() throws IOException {
+        ImportResponse response = importCsv(true, """
+                passCode,teamName
+                P2,Team 2
+                P3,Team 3
+                P1,Team 1
+                P4,Team 4
+                P5,Team 5
+                """);
+
+        // Rows 1-2 are one batch, rows 3-4 the next; row 5 is never read
+        assertThat(response.getTotalRows()).isEqualTo(4);
+        assertThat(response.getInserted()).isEqualTo(2);
+        assertThat(response.getDuplicates()).isEqualTo(1);
+        assertThat(response.getSkipped()).isEqualTo(1);
+        assertThat(response.getRows()).extracting(ImportResponse.RowResult::getRow, ImportResponse.RowResult::getStatus)
+                .containsExactly(
+                        tuple(3L, ImportResponse.RowStatus.DUPLICATE),
+                        tuple(4L, ImportResponse.RowStatus.SKIPPED));
+        assertThat(importedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void orderedImportStopsAtAnInvalidRowAfterInsertingTheRowsBeforeIt() throws IOException {
+        ImportResponse response = importCsv(true, """
+                passCode,teamName
+                P2,Team 2
+                ,Team 3
+                P4,Team 4
+                """);
+
+        assertThat(response.getTotalRows()).isEqualTo(2);
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(1);
+        assertThat(importedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void malformedRecordFailsTheRowAndEndsTheImport() throws IOException {
+        ImportResponse response = importService.importPasses(EVENT_ID, stream("""
+                {"passCode": "P2", "teamName": "Team 2"}
+                {"passCode": "P3", "teamName":
+                {"passCode": "P4", "teamName": "Team 4"}
+                """), PassImportService.ImportFormat.NDJSON, false);
+
+        assertThat(response.getTotalRows()).isEqualTo(2);
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getRows()).extracting(ImportResponse.RowResult::getRow, ImportResponse.RowResult::getStatus)
+                .containsExactly(tuple(2L, ImportResponse.RowStatus.FAILED));
+        assertThat(importedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reportedRowsAreCappedButCountsAreNot() throws IOException {
+        importService = importService(1);
+
+        ImportResponse response = importCsv(false, """
+                passCode,teamName
+                P2,
+                P3,
+                P4,Team 4
+                """);
+
+        assertThat(response.getInvalid()).isEqualTo(2);
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getRows()).hasSize(1);
+        assertThat(response.isRowsTruncated()).isTrue();
+    }
+
+    @Test
+    void plainCodesInTheSignedFormAreInvalid() throws IOException {
+        ImportResponse response = importCsv(false, """
+                passCode,teamName
+                GP1.test.P1.k1.mac,Team 1
+                P2,Team 2
+                """);
+
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(1);
+        assertThat(response.getRows()).extracting(ImportResponse.RowResult::getRow,
+                        ImportResponse.RowResult::getStatus, ImportResponse.RowResult::getMessage)
+                .containsExactly(tuple(1L, ImportResponse.RowStatus.INVALID, PassCodeSigner.PLAIN_CODE_MESSAGE));
+    }
+
+    private ImportResponse importCsv(boolean ordered, String csv) throws IOException {
+        return importService.importPasses(EVENT_ID, stream(csv), PassImportService.ImportFormat.CSV, ordered);
+    }
+
+    private long importedCount() {
+        return mongoTemplate.count(new Query(), Pass.class) - existingPasses;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Batches of two, so the tests cross batch boundaries
+    private static PassImportService importService(int maxReportedRows) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new PassImportService(mongoTemplate, new PassStatsService(mongoTemplate, Duration.ZERO),
+                new PassSyncService(mongoTemplate, Duration.ZERO), dashboardFeed,
+                new PassCodeSigner(meterRegistry, "", "", true),
+                new PassCodeFilter(mongoTemplate, meterRegistry, false, 1000, 0.01, false),
+                new ObjectMapper(), 2, maxReportedRows);
+    }
+}
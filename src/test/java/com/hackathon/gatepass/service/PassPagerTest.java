@@ -0,0 +1,108 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.PageResponse;
+import com.hackathon.gatepass.exception.InvalidPageRequestException;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassPagerTest {
+
+    private static final String EVENT_ID = "test";
+    private static final Instant CREATED_AT = Instant.parse("2024-01-15T10:00:00Z");
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+
+    private PassPager pager;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void seedPasses() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        // Two passes share each creation time, so pages have to break ties on _id
+        mongoTemplate.insert(IntStream.range(0, 7)
+                .mapToObj(i -> Pass.builder()
+                        .eventId(EVENT_ID)
+                        .passCode("P" + i)
+                        .createdAt(CREATED_AT.plusSeconds(i / 2))
+                        .build())
+                .toList(), Pass.class);
+        // Written straight to MongoDB, without created_at
+        String collection = mongoTemplate.getCollectionName(Pass.class);
+        for (String passCode : List.of("L1", "L2")) {
+            mongoTemplate.insert(new Document("_id", new ObjectId())
+                    .append("event_id", EVENT_ID)
+                    .append("pass_code", passCode), collection);
+        }
+        pager = new PassPager(mongoTemplate);
+    }
+
+    @Test
+    void ascendingPagesVisitEveryPassOnceWithLegacyPassesFirst() {
+        assertThat(allPages("createdAt", "asc", 2))
+                .containsExactly("L1", "L2", "P0", "P1", "P2", "P3", "P4", "P5", "P6");
+    }
+
+    @Test
+    void descendingPagesVisitEveryPassOnceWithLegacyPassesLast() {
+        assertThat(allPages("createdAt", "desc", 2))
+                .containsExactly("P6", "P5", "P4", "P3", "P2", "P1", "P0", "L2", "L1");
+    }
+
+    @Test
+    void idPagesVisitEveryPassOnce() {
+        assertThat(allPages("id", "asc", 4)).hasSize(9).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejected() {
+        String cursor = pager.page(filter(), null, null, 2, "id", "asc").getNextCursor();
+
+        assertThatThrownBy(() -> pager.page(filter(), null, cursor, 2, "createdAt", "asc"))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> pager.page(filter(), null, "not-a-cursor", 2, "createdAt", "asc"))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    private List<String> allPages(String sort, String direction, int limit) {
+        List<String> passCodes = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<Pass> page = pager.page(filter(), null, cursor, limit, sort, direction);
+            page.getItems().forEach(pass -> passCodes.add(pass.getPassCode()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && passCodes.size() < 100);
+        return passCodes;
+    }
+
+    private static Criteria filter() {
+        return Criteria.where("event_id").is(EVENT_ID);
+    }
+}
@@ -0,0 +1,134 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassStats;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassStatsServiceTest {
+
+    private static final String EVENT_ID = "test";
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+
+    private PassStatsService statsService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void seedPasses() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.remove(new Query(), PassStats.class);
+        mongoTemplate.insert(List.of(pass("P1", "MIT"), pass("P2", "MIT"), pass("P3", "IIT")), Pass.class);
+        statsService = new PassStatsService(mongoTemplate, Duration.ZERO);
+    }
+
+    @Test
+    void rebuildCountsThePasses() {
+        verifyEntry("P1", "gate-1");
+
+        PassStats stats = statsService.rebuild(EVENT_ID);
+
+        assertThat(stats.getTotalPasses()).isEqualTo(3);
+        assertThat(stats.getEntriesVerified()).isEqualTo(1);
+        assertThat(statsService.getStats(EVENT_ID).getColleges())
+                .extracting(college -> college.getCollegeName() + "=" + college.getCount())
+                .containsExactly("MIT=2", "IIT=1");
+    }
+
+    @Test
+    void rebuildStartsOverWhenACountedWriteIncrementsWhileSettling() {
+        statsService.rebuild(EVENT_ID);
+        // The pass write is already visible to the recount, its counter update is still in flight
+        verifyEntry("P1", "gate-1");
+        PassStatsService racing = new PassStatsService(mongoTemplate, Duration.ZERO) {
+            private boolean incremented;
+
+            @Override
+            boolean settle() {
+                if (!incremented) {
+                    incremented = true;
+                    onTransition(EVENT_ID, PassAction.ENTRY, "gate-1");
+                }
+                return super.settle();
+            }
+        };
+
+        racing.rebuild(EVENT_ID);
+
+        PassStats stored = mongoTemplate.findById(EVENT_ID, PassStats.class);
+        assertThat(stored.getEntriesVerified()).isEqualTo(1);
+        assertThat(stored.getEntriesVerifiedBy()).containsEntry("gate-1", 1L);
+    }
+
+    @Test
+    void versionMovesWithEveryCountedWrite() {
+        statsService.rebuild(EVENT_ID);
+        long version = statsService.currentVersion(EVENT_ID);
+
+        statsService.onTransition(EVENT_ID, PassAction.ENTRY, "gate-1");
+        assertThat(statsService.currentVersion(EVENT_ID)).isEqualTo(version + 1);
+        statsService.onUpdated(EVENT_ID);
+        assertThat(statsService.currentVersion(EVENT_ID)).isEqualTo(version + 2);
+        statsService.onDeleted(pass("P1", "MIT"));
+        assertThat(statsService.currentVersion(EVENT_ID)).isEqualTo(version + 3);
+        assertThat(statsService.currentVersion("other")).isZero();
+    }
+
+    @Test
+    void versionStillMovesWhenTheCounterUpdateFails() {
+        statsService.rebuild(EVENT_ID);
+        long version = statsService.currentVersion(EVENT_ID);
+        // A counter of the wrong type makes the $inc fail, as a corrupted document would
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(EVENT_ID)),
+                new Update().set("entries_verified", "broken"), PassStats.class);
+
+        statsService.onTransition(EVENT_ID, PassAction.ENTRY, "gate-1");
+
+        assertThat(statsService.currentVersion(EVENT_ID)).isEqualTo(version + 1);
+    }
+
+    @Test
+    void statsOfAnUnknownEventAreNotStored() {
+        assertThat(statsService.getStats("unknown").getTotalPasses()).isZero();
+
+        assertThat(mongoTemplate.findById("unknown", PassStats.class)).isNull();
+    }
+
+    private static void verifyEntry(String passCode, String actor) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("pass_code").is(passCode)),
+                new Update().set("entry_verified", true).set("verified_by", actor), Pass.class);
+    }
+
+    private static Pass pass(String passCode, String college) {
+        return Pass.builder()
+                .eventId(EVENT_ID)
+                .passCode(passCode)
+                .teamName("Team " + passCode)
+                .college(college)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.SyncPass;
+import com.hackathon.gatepass.dto.SyncResponse;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassTombstone;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PassSyncServiceTest {
+
+    private static final String EVENT_ID = "test";
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+
+    private PassSyncService syncService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void clear() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.remove(new Query(), PassTombstone.class);
+        syncService = new PassSyncService(mongoTemplate, Duration.ZERO);
+    }
+
+    @Test
+    void createdPassIsSyncedOnceTheServerStampsIt() throws InterruptedException {
+        mongoTemplate.insert(pass("P1"));
+
+        assertThat(syncService.changesSince(EVENT_ID, null, null).getChanges()).isEmpty();
+
+        syncService.stampCreated(EVENT_ID, List.of("P1"));
+        Thread.sleep(5);
+
+        assertThat(syncService.changesSince(EVENT_ID, null, null).getChanges())
+                .extracting(SyncPass::getPassCode, SyncPass::getSignedPassCode)
+                .containsExactly(tuple("P1", "GP1.test.P1.k1.sig"));
+    }
+
+    @Test
+    void transitionAfterTheWatermarkIsInTheNextPoll() throws InterruptedException {
+        mongoTemplate.insert(List.of(pass("P1"), pass("P2")), Pass.class);
+        syncService.stampCreated(EVENT_ID, List.of("P1", "P2"));
+        Thread.sleep(5);
+        SyncResponse snapshot = syncService.changesSince(EVENT_ID, null, null);
+        assertThat(snapshot.getChanges()).hasSize(2);
+
+        Thread.sleep(5);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("pass_code").is("P2")),
+                new PassTransitionEngine(mongoTemplate).transitionUpdate(
+                        PassAction.ENTRY, "gate-1", Instant.now()),
+                Pass.class);
+        Thread.sleep(5);
+
+        SyncResponse next = syncService.changesSince(EVENT_ID, snapshot.getNextToken(), null);
+        assertThat(next.getChanges()).extracting(SyncPass::getPassCode, SyncPass::getEntryVerified)
+                .containsExactly(tuple("P2", true));
+    }
+
+    @Test
+    void deletionAfterTheWatermarkIsReported() throws InterruptedException {
+        Pass pass = mongoTemplate.insert(pass("P1"));
+        syncService.stampCreated(EVENT_ID, List.of("P1"));
+        Thread.sleep(5);
+        SyncResponse snapshot = syncService.changesSince(EVENT_ID, null, null);
+
+        Thread.sleep(5);
+        mongoTemplate.remove(pass);
+        syncService.recordDeletion(pass);
+        Thread.sleep(5);
+
+        SyncResponse next = syncService.changesSince(EVENT_ID, snapshot.getNextToken(), null);
+        assertThat(next.getChanges()).isEmpty();
+        assertThat(next.getDeleted()).containsExactly(pass.getId());
+    }
+
+    @Test
+    void backfillStampsPassesWithoutUpdatedAt() {
+        mongoTemplate.insert(pass("P1"));
+
+        syncService.backfillUpdatedAt();
+
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("updated_at").exists(false)), Pass.class))
+                .isZero();
+    }
+
+    private static Pass pass(String passCode) {
+        return Pass.builder()
+                .eventId(EVENT_ID)
+                .passCode(passCode)
+                .signedPassCode("GP1." + EVENT_ID + "." + passCode + ".k1.sig")
+                .teamName("Team " + passCode)
+                .entryVerified(false)
+                .goodiesGiven(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.dto.ThroughputResponse;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.model.PassThroughput;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassThroughputServiceTest {
+
+    private static final String EVENT_ID = "test";
+    private static final Instant START = Instant.parse("2024-01-15T10:00:00Z");
+
+    private static InMemoryMongo mongo;
+    private static MongoTemplate mongoTemplate;
+
+    private PassThroughputService throughputService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+        mongoTemplate = mongo.template("gatepass_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void clear() {
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.remove(new Query(), PassThroughput.class);
+        throughputService = new PassThroughputService(mongoTemplate, Duration.ofHours(1), Duration.ofDays(7),
+                Duration.ZERO);
+    }
+
+    @Test
+    void seriesGroupsMinutesIntoIntervalsFromTheStartOfTheRange() {
+        scan("gate-1", 0, 3);
+        scan("gate-2", 2, 1);
+        scan("gate-1", 6, 2);
+        scan("gate-2", 7, 5);
+
+        ThroughputResponse throughput = throughputService.getThroughput(EVENT_ID, "entry",
+                START.toString(), START.plusSeconds(600).toString(), 5);
+
+        assertThat(throughput.getTotal()).isEqualTo(11);
+        assertThat(throughput.getAveragePerMinute()).isEqualTo(1.1);
+        assertThat(throughput.getSeries())
+                .extracting(bucket -> bucket.getStart() + "=" + bucket.getCount())
+                .containsExactly(START + "=4", START.plusSeconds(300) + "=7");
+        assertThat(throughput.getPeakMinute().getStart()).isEqualTo(START.plusSeconds(420));
+        assertThat(throughput.getVerifiers())
+                .extracting(ThroughputResponse.VerifierThroughput::getVerifier)
+                .containsExactly("gate-2", "gate-1");
+    }
+
+    @Test
+    void peakIsTheEarliestOfEquallyBusyMinutes() {
+        scan("gate-1", 1, 2);
+        scan("gate-1", 4, 2);
+
+        ThroughputResponse throughput = throughputService.getThroughput(EVENT_ID, "entry",
+                START.toString(), START.plusSeconds(600).toString(), 1);
+
+        assertThat(throughput.getPeakMinute().getStart()).isEqualTo(START.plusSeconds(60));
+        assertThat(throughput.getVerifiers().get(0).getActiveMinutes()).isEqualTo(2);
+        assertThat(throughput.getVerifiers().get(0).getAveragePerActiveMinute()).isEqualTo(2.0);
+    }
+
+    @Test
+    void rebuildRecountsBucketsFromThePasses() {
+        mongoTemplate.insert(List.of(verifiedPass("P1", 0), verifiedPass("P2", 0), verifiedPass("P3", 5)),
+                Pass.class);
+        // Drifted count for minute 0, and a bucket whose pass was deleted
+        scan("gate-1", 0, 7);
+        scan("gate-1", 9, 1);
+
+        assertThat(throughputService.rebuild(EVENT_ID)).isEqualTo(3);
+
+        assertThat(bucketCount(0)).isEqualTo(2);
+        assertThat(bucketCount(5)).isEqualTo(1);
+        assertThat(bucketCount(9)).isNull();
+    }
+
+    @Test
+    void rebuildStartsOverWhenACountedScanIncrementsWhileSettling() {
+        mongoTemplate.insert(List.of(verifiedPass("P1", 0)), Pass.class);
+        scan("gate-1", 0, 1);
+        // P2 is already written, its counter update is still in flight
+        mongoTemplate.insert(List.of(verifiedPass("P2", 0)), Pass.class);
+        PassThroughputService racing = new PassThroughputService(mongoTemplate, Duration.ofHours(1),
+                Duration.ofDays(7), Duration.ZERO) {
+            private boolean incremented;
+
+            @Override
+            boolean settle() {
+                if (!incremented) {
+                    incremented = true;
+                    onTransition(EVENT_ID, PassAction.ENTRY, "gate-1", START);
+                }
+                return super.settle();
+            }
+        };
+
+        racing.rebuild(EVENT_ID);
+
+        assertThat(bucketCount(0)).isEqualTo(2);
+    }
+
+    private void scan(String actor, int minute, int count) {
+        for (int i = 0; i < count; i++) {
+            throughputService.onTransition(EVENT_ID, PassAction.ENTRY, actor, START.plusSeconds(minute * 60L + i));
+        }
+    }
+
+    private static Long bucketCount(int minute) {
+        PassThroughput bucket = mongoTemplate.findOne(Query.query(Criteria.where("event_id").is(EVENT_ID)
+                .and("minute").is(START.plusSeconds(minute * 60L))), PassThroughput.class);
+        return bucket == null ? null : bucket.getCount();
+    }
+
+    private static Pass verifiedPass(String passCode, int minute) {
+        return Pass.builder()
+                .eventId(EVENT_ID)
+                .passCode(passCode)
+                .entryVerified(true)
+                .verifiedBy("gate-1")
+                .entryVerifiedAt(START.plusSeconds(minute * 60L + 30))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackathon.gatepass.service;
+
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassAction;
+import com.hackathon.gatepass.support.InMemoryMongo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassTransitionEngineTest {
+
+    private static final String EVENT_ID = "test";
+    private static final Instant SCANNED_AT = Instant.parse("2024-01-15T10:30:00Z");
+
+    private static InMemoryMongo mongo;
+
+    private MongoTemplate mongoTemplate;
+    private PassTransitionEngine engine;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = InMemoryMongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.close();
+    }
+
+    @BeforeEach
+    void seedPasses() {
+        mongoTemplate = mongo.template("gatepass_test");
+        mongoTemplate.remove(new Query(), Pass.class);
+        mongoTemplate.insert(List.of(pass("P1"), pass("P2")), Pass.class);
+        engine = new PassTransitionEngine(mongoTemplate);
+    }
+
+    @Test
+    void replayedBatchIsReportedAppliedOnlyOnce() {
+        assertThat(outcomes(engine.applyAll(offlineQueue()))).containsExactly(
+                TransitionResult.Outcome.APPLIED,
+                TransitionResult.Outcome.APPLIED,
+                TransitionResult.Outcome.APPLIED,
+                TransitionResult.Outcome.NOT_FOUND);
+
+        // The device retries the same queue: same codes, verifiers and scan times
+        assertThat(outcomes(engine.applyAll(offlineQueue()))).containsExactly(
+                TransitionResult.Outcome.ALREADY_DONE,
+                TransitionResult.Outcome.ALREADY_DONE,
+                TransitionResult.Outcome.ALREADY_DONE,
+                TransitionResult.Outcome.NOT_FOUND);
+    }
+
+    @Test
+    void repeatedItemWithinOneBatchIsAppliedOnce() {
+        List<TransitionResult> results = engine.applyAll(List.of(
+                command("P1", PassAction.ENTRY),
+                command("P1", PassAction.ENTRY)));
+
+        assertThat(outcomes(results)).containsExactlyInAnyOrder(
+                TransitionResult.Outcome.APPLIED,
+                TransitionResult.Outcome.ALREADY_DONE);
+    }
+
+    @Test
+    void batchItemForPassVerifiedOnlineIsAlreadyDone() {
+        engine.apply(command("P1", PassAction.ENTRY).selector(), PassAction.ENTRY, "gate-1", SCANNED_AT);
+
+        assertThat(outcomes(engine.applyAll(List.of(command("P1", PassAction.ENTRY)))))
+                .containsExactly(TransitionResult.Outcome.ALREADY_DONE);
+    }
+
+    private static List<TransitionCommand> offlineQueue() {
+        return List.of(
+                command("P1", PassAction.ENTRY),
+                command("P2", PassAction.ENTRY),
+                command("P1", PassAction.GOODIES),
+                command("MISSING", PassAction.ENTRY));
+    }
+
+    private static TransitionCommand command(String passCode, PassAction action) {
+        return new TransitionCommand(EVENT_ID, null, passCode, action, "gate-1", SCANNED_AT);
+    }
+
+    private static Pass pass(String passCode) {
+        return Pass.builder()
+                .eventId(EVENT_ID)
+                .passCode(passCode)
+                .teamName("Team " + passCode)
+                .build();
+    }
+
+    private static List<TransitionResult.Outcome> outcomes(List<TransitionResult> results) {
+        return results.stream().map(TransitionResult::getOutcome).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.hackathon.gatepass.support;
+
+import com.hackathon.gatepass.model.IdempotencyRecord;
+import com.hackathon.gatepass.model.Pass;
+import com.hackathon.gatepass.model.PassThroughput;
+import com.hackathon.gatepass.model.PassTombstone;
+import com.hackathon.gatepass.model.ScanAudit;
+import com.hackathon.gatepass.model.User;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.MongoVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+// In-process MongoDB wire-protocol server shared by the unit tests, the benchmarks and the load test.
+// It has no query planner and no change streams; query plans are checked against a real mongod instead.
+public final class InMemoryMongo implements AutoCloseable {
+
+    // The bundled default reports a wire version older than the current driver accepts
+    private static final MongoVersion VERSION = new MongoVersion() {
+        @Override
+        public List<Integer> getVersionArray() {
+            return List.of(6, 0, 0);
+        }
+
+        @Override
+        public int getWireVersion() {
+            return 17;
+        }
+
+        @Override
+        public String toVersionString() {
+            return "6.0.0";
+        }
+    };
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(Pass.class, PassTombstone.class,
+            PassThroughput.class, IdempotencyRecord.class, ScanAudit.class, User.class);
+
+    private final MongoServer server;
+    private final String connectionString;
+    private MongoClient client;
+
+    private InMemoryMongo(MongoServer server, String connectionString) {
+        this.server = server;
+        this.connectionString = connectionString;
+    }
+
+    public static InMemoryMongo start() {
+        MemoryBackend backend = new MemoryBackend();
+        backend.version(VERSION);
+        MongoServer server = new MongoServer(backend);
+        return new InMemoryMongo(server, server.bindAndGetConnectionString());
+    }
+
+    public String getConnectionString() {
+        return connectionString;
+    }
+
+    // A template on the given database with the indexes the application creates at startup
+    public synchronized MongoTemplate template(String database) {
+        if (client == null) {
+            client = MongoClients.create(connectionString);
+        }
+        MongoTemplate mongoTemplate = new MongoTemplate(client, database);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> type : INDEXED_TYPES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::createIndex);
+        }
+        return mongoTemplate;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (client != null) {
+            client.close();
+        }
+        server.shutdownNow();
+    }
+}